@@ -505,11 +505,27 @@ public interface HttpFields extends Iterable<HttpField>
      * single thread.
      *
      * <p>The cookie handling provided by this class is guided by the Servlet specification and RFC6265.
+     *
+     * <p>Once it holds more than a few fields, lookups by name are done with an open addressed index
+     * of the field positions by case insensitive name hash, rather than by a linear scan.  The index is
+     * maintained as fields are added and is rebuilt on the next lookup after any other modification.
      */
     class Mutable implements Iterable<HttpField>, HttpFields
     {
+        private static final int INDEX_THRESHOLD = 16;
+        private static final int[] HEADER_HASHES = new int[HttpHeader.values().length];
+
+        static
+        {
+            for (HttpHeader header : HttpHeader.values())
+            {
+                HEADER_HASHES[header.ordinal()] = HttpField.nameHashCode(header.asString());
+            }
+        }
+
         private HttpField[] _fields;
         private int _size;
+        private int[] _index;
 
         /**
          * Initialize an empty HttpFields.
@@ -628,6 +644,13 @@ public interface HttpFields extends Iterable<HttpField>
                 if (_size == _fields.length)
                     _fields = Arrays.copyOf(_fields, _size * 2);
                 _fields[_size++] = field;
+                if (_index != null)
+                {
+                    if (_size * 2 > _index.length)
+                        _index = null;
+                    else
+                        index(_index, _size - 1);
+                }
             }
             return this;
         }
@@ -642,6 +665,7 @@ public interface HttpFields extends Iterable<HttpField>
             if (fields.size() == 0)
                 return this;
 
+            _index = null;
             if (fields instanceof Immutable)
             {
                 Immutable b = (Immutable)fields;
@@ -736,6 +760,7 @@ public interface HttpFields extends Iterable<HttpField>
         public Mutable clear()
         {
             _size = 0;
+            _index = null;
             return this;
         }
 
@@ -917,6 +942,147 @@ public interface HttpFields extends Iterable<HttpField>
             return _fields[index];
         }
 
+        @Override
+        public HttpField getField(HttpHeader header)
+        {
+            int i = indexOf(header);
+            return i < 0 ? null : _fields[i];
+        }
+
+        @Override
+        public HttpField getField(String name)
+        {
+            int i = indexOf(name);
+            return i < 0 ? null : _fields[i];
+        }
+
+        @Override
+        public String get(HttpHeader header)
+        {
+            int i = indexOf(header);
+            return i < 0 ? null : _fields[i].getValue();
+        }
+
+        @Override
+        public String get(String header)
+        {
+            int i = indexOf(header);
+            return i < 0 ? null : _fields[i].getValue();
+        }
+
+        @Override
+        public boolean contains(HttpHeader header)
+        {
+            return indexOf(header) >= 0;
+        }
+
+        @Override
+        public boolean contains(String name)
+        {
+            return indexOf(name) >= 0;
+        }
+
+        private int indexOf(HttpHeader header)
+        {
+            int[] index = header == null ? null : index();
+            if (index == null)
+            {
+                for (int i = 0; i < _size; i++)
+                {
+                    if (_fields[i].getHeader() == header)
+                        return i;
+                }
+                return -1;
+            }
+            return indexOf(index, HEADER_HASHES[header.ordinal()], header, (f, h) -> f.getHeader() == h);
+        }
+
+        private int indexOf(String name)
+        {
+            int[] index = index();
+            if (index == null)
+            {
+                for (int i = 0; i < _size; i++)
+                {
+                    if (_fields[i].is(name))
+                        return i;
+                }
+                return -1;
+            }
+            return indexOf(index, HttpField.nameHashCode(name), name, HttpField::is);
+        }
+
+        private int indexOf(HttpField field)
+        {
+            int[] index = index();
+            if (index == null)
+            {
+                for (int i = 0; i < _size; i++)
+                {
+                    if (_fields[i].isSameName(field))
+                        return i;
+                }
+                return -1;
+            }
+            return indexOf(index, field.nameHashCode(), field, HttpField::isSameName);
+        }
+
+        /**
+         * @param index the index of the field positions
+         * @param hash the case insensitive hash of the name of the fields that can match
+         * @param key the key to match
+         * @param matcher the predicate matching the fields
+         * @return the position of the first field matched, or -1
+         */
+        private <T> int indexOf(int[] index, int hash, T key, BiPredicate<HttpField, T> matcher)
+        {
+            // Fields with the same name hash are probed in the order they were indexed,
+            // which is the order of their positions, so the first match is the first field.
+            int mask = index.length - 1;
+            int slot = spread(hash) & mask;
+            int position;
+            while ((position = index[slot]) != 0)
+            {
+                HttpField f = _fields[position - 1];
+                if (f.nameHashCode() == hash && matcher.test(f, key))
+                    return position - 1;
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int[] index()
+        {
+            if (_size < INDEX_THRESHOLD)
+                return null;
+            if (_index == null)
+            {
+                int[] index = new int[Integer.highestOneBit(_size) << 2];
+                for (int i = 0; i < _size; i++)
+                {
+                    index(index, i);
+                }
+                _index = index;
+            }
+            return _index;
+        }
+
+        private void index(int[] index, int position)
+        {
+            int mask = index.length - 1;
+            int slot = spread(_fields[position].nameHashCode()) & mask;
+            while (index[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = position + 1;
+        }
+
+        private static int spread(int hash)
+        {
+            return hash ^ (hash >>> 16);
+        }
+
         @Override
         public int hashCode()
         {
@@ -962,24 +1128,18 @@ public interface HttpFields extends Iterable<HttpField>
 
         public Mutable put(HttpField field)
         {
-            boolean put = false;
+            int first = indexOf(field);
+            if (first < 0)
+                return add(field);
 
-            for (int i = 0; i < _size; i++)
+            // The replacement has the same name, so the index remains valid.
+            _fields[first] = field;
+            for (int i = first + 1; i < _size; i++)
             {
                 HttpField f = _fields[i];
                 if (f.isSameName(field))
-                {
-                    if (put)
-                        System.arraycopy(_fields, i + 1, _fields, i, _size-- - i-- - 1);
-                    else
-                    {
-                        _fields[i] = field;
-                        put = true;
-                    }
-                }
+                    remove(i--);
             }
-            if (!put)
-                add(field);
             return this;
         }
 
@@ -1179,16 +1339,7 @@ public interface HttpFields extends Iterable<HttpField>
         private <T> void computeField(T header, BiFunction<T, List<HttpField>, HttpField> computeFn, BiPredicate<HttpField, T> matcher)
         {
             // Look for first occurrence
-            int first = -1;
-            for (int i = 0; i < _size; i++)
-            {
-                HttpField f = _fields[i];
-                if (matcher.test(f, header))
-                {
-                    first = i;
-                    break;
-                }
-            }
+            int first = header instanceof HttpHeader ? indexOf((HttpHeader)header) : indexOf((String)header);
 
             // If the header is not found, add a new one;
             if (first < 0)
@@ -1225,9 +1376,14 @@ public interface HttpFields extends Iterable<HttpField>
 
             HttpField newField = computeFn.apply(header, found);
             if (newField == null)
+            {
                 remove(first);
+            }
             else
+            {
                 _fields[first] = newField;
+                _index = null;
+            }
         }
 
         /**
@@ -1238,7 +1394,7 @@ public interface HttpFields extends Iterable<HttpField>
          */
         public Mutable remove(HttpHeader name)
         {
-            for (int i = 0; i < _size; i++)
+            for (int i = indexOf(name); i >= 0 && i < _size; i++)
             {
                 HttpField f = _fields[i];
                 if (f.getHeader() == name)
@@ -1266,7 +1422,7 @@ public interface HttpFields extends Iterable<HttpField>
          */
         public Mutable remove(String name)
         {
-            for (int i = 0; i < _size; i++)
+            for (int i = indexOf(name); i >= 0 && i < _size; i++)
             {
                 HttpField f = _fields[i];
                 if (f.is(name))
@@ -1280,6 +1436,7 @@ public interface HttpFields extends Iterable<HttpField>
             _size--;
             System.arraycopy(_fields, i + 1, _fields, i, _size - i);
             _fields[_size] = null;
+            _index = null;
         }
 
         public int size()
@@ -1350,6 +1507,7 @@ public interface HttpFields extends Iterable<HttpField>
                 System.arraycopy(_fields, _cursor, _fields, _cursor + 1, _size++);
                 _fields[_cursor++] = field;
                 _current = -1;
+                _index = null;
             }
 
             @Override
@@ -1410,9 +1568,14 @@ public interface HttpFields extends Iterable<HttpField>
                 if (_current < 0)
                     throw new IllegalStateException();
                 if (field == null)
+                {
                     remove();
+                }
                 else
+                {
                     _fields[_current] = field;
+                    _index = null;
+                }
             }
         }
     }
@@ -17,6 +17,10 @@ import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -36,12 +40,20 @@ import static org.eclipse.jetty.http.HttpStatus.INTERNAL_SERVER_ERROR_500;
  * then the generator will strictly pass on the exact strings received from methods and header
  * fields.  Otherwise a fast case insensitive string lookup is used that may alter the
  * case and white space of some methods/headers
+ * </p>
+ * <p>
+ * The encoded bytes of response fields that commonly recur with the same value (eg. Content-Type,
+ * Cache-Control, Vary) are memoized in a bounded lock-free cache shared by all generators, whose
+ * size can be set with the system property "org.eclipse.jetty.http.HttpGenerator.FIELD_CACHE_SIZE"
+ * (0 to disable).
+ * </p>
  */
 public class HttpGenerator
 {
     private static final Logger LOG = LoggerFactory.getLogger(HttpGenerator.class);
 
     public static final boolean __STRICT = Boolean.getBoolean("org.eclipse.jetty.http.HttpGenerator.STRICT");
+    private static final FieldCache FIELD_CACHE = new FieldCache(Integer.getInteger("org.eclipse.jetty.http.HttpGenerator.FIELD_CACHE_SIZE", 512));
 
     private static final byte[] __colon_space = new byte[]{':', ' '};
     public static final MetaData.Response CONTINUE_100_INFO = new MetaData.Response(HttpVersion.HTTP_1_1, 100, null, null, -1);
@@ -905,6 +917,22 @@ public class HttpGenerator
         }
     }
 
+    /**
+     * @return the number of fields encoded from the shared cache of encoded fields
+     */
+    public static long getFieldCacheHits()
+    {
+        return FIELD_CACHE._hits.sum();
+    }
+
+    /**
+     * @return the number of cacheable fields that were not found in the shared cache of encoded fields
+     */
+    public static long getFieldCacheMisses()
+    {
+        return FIELD_CACHE._misses.sum();
+    }
+
     public static void putTo(HttpField field, ByteBuffer bufferInFillMode)
     {
         if (field instanceof PreEncodedHttpField)
@@ -914,6 +942,13 @@ public class HttpGenerator
         else
         {
             HttpHeader header = field.getHeader();
+            byte[] encoded = FIELD_CACHE.getEncodedField(header, field.getValue());
+            if (encoded != null)
+            {
+                bufferInFillMode.put(encoded);
+                return;
+            }
+
             if (header != null)
             {
                 bufferInFillMode.put(header.getBytesColonSpace());
@@ -939,4 +974,87 @@ public class HttpGenerator
         }
         BufferUtil.putCRLF(bufferInFillMode);
     }
+
+    /**
+     * <p>A direct mapped cache of the encoded bytes of known fields, keyed by header and value.</p>
+     * <p>Only the headers whose values are commonly repeated across responses are cached.
+     * Entries are immutable and a colliding field simply replaces the entry of its slot,
+     * so lookups and updates need no locking.</p>
+     */
+    private static class FieldCache
+    {
+        private static final int MAX_VALUE_LENGTH = 256;
+        private static final EnumSet<HttpHeader> CACHEABLE = EnumSet.of(
+            HttpHeader.ACCEPT_RANGES,
+            HttpHeader.ALLOW,
+            HttpHeader.CACHE_CONTROL,
+            HttpHeader.CONNECTION,
+            HttpHeader.CONTENT_ENCODING,
+            HttpHeader.CONTENT_LANGUAGE,
+            HttpHeader.CONTENT_TYPE,
+            HttpHeader.KEEP_ALIVE,
+            HttpHeader.PRAGMA,
+            HttpHeader.SERVER,
+            HttpHeader.STRICT_TRANSPORT_SECURITY,
+            HttpHeader.TRANSFER_ENCODING,
+            HttpHeader.VARY,
+            HttpHeader.VIA,
+            HttpHeader.X_POWERED_BY);
+
+        private final AtomicReferenceArray<Entry> _entries;
+        private final AtomicIntegerArray _candidates;
+        private final LongAdder _hits = new LongAdder();
+        private final LongAdder _misses = new LongAdder();
+
+        private FieldCache(int size)
+        {
+            _entries = size <= 0 ? null : new AtomicReferenceArray<>(Integer.highestOneBit(size));
+            _candidates = size <= 0 ? null : new AtomicIntegerArray(Integer.highestOneBit(size));
+        }
+
+        private byte[] getEncodedField(HttpHeader header, String value)
+        {
+            if (_entries == null || header == null || value == null || !CACHEABLE.contains(header) || value.length() > MAX_VALUE_LENGTH)
+                return null;
+
+            int hash = 31 * header.ordinal() + value.hashCode();
+            int slot = (hash ^ (hash >>> 16)) & (_entries.length() - 1);
+            Entry entry = _entries.get(slot);
+            if (entry != null && entry._header == header && (entry._value == value || entry._value.equals(value)))
+            {
+                _hits.increment();
+                return entry._encoded;
+            }
+
+            _misses.increment();
+            // Only cache a field the second time it is seen, so that
+            // one-off values (eg. multipart boundaries) do not allocate.
+            if (_candidates.get(slot) != hash)
+            {
+                _candidates.lazySet(slot, hash);
+                return null;
+            }
+            entry = new Entry(header, value);
+            _entries.lazySet(slot, entry);
+            return entry._encoded;
+        }
+
+        private static class Entry
+        {
+            private final HttpHeader _header;
+            private final String _value;
+            private final byte[] _encoded;
+
+            private Entry(HttpHeader header, String value)
+            {
+                _header = header;
+                _value = value;
+                ByteBuffer buffer = ByteBuffer.allocate(header.getBytesColonSpace().length + value.length() + 2);
+                buffer.put(header.getBytesColonSpace());
+                putSanitisedValue(value, buffer);
+                BufferUtil.putCRLF(buffer);
+                _encoded = buffer.array();
+            }
+        }
+    }
 }
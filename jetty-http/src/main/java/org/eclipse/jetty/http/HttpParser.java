@@ -17,6 +17,8 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -73,7 +75,10 @@ import static org.eclipse.jetty.http.HttpCompliance.Violation.WHITESPACE_AFTER_F
  * (eg. "Connection: close"), or just header names (eg. "Connection:" ).
  * For headers who's value is not known statically (eg. Host, COOKIE) then a
  * per parser dynamic Trie of {@link HttpFields} from previous parsed messages
- * is used to help the parsing of subsequent messages.
+ * is used to help the parsing of subsequent messages.  Unknown headers are
+ * also added to this cache once they have been seen with the same value in
+ * more than one message.  When the cache is full, it is rebuilt with only the
+ * fields that were the most frequently matched.
  * </p>
  * <p>
  * The parser can work in varying compliance modes:
@@ -325,6 +330,22 @@ public class HttpParser
         _fieldCache.setCaseSensitive(headerCacheCaseSensitive);
     }
 
+    /**
+     * @return the number of header fields resolved from the header cache, without parsing their value
+     */
+    public long getHeaderCacheHits()
+    {
+        return _fieldCache.getHits();
+    }
+
+    /**
+     * @return the number of cacheable header fields that were not resolved from the header cache
+     */
+    public long getHeaderCacheMisses()
+    {
+        return _fieldCache.getMisses();
+    }
+
     protected void checkViolation(Violation violation) throws BadMessageException
     {
         if (violation.isAllowedBy(_complianceMode))
@@ -706,31 +727,30 @@ public class HttpParser
                             {
                                 _uri.reset();
                                 setState(State.URI);
-                                // quick scan for space or EoBuffer
+                                // quick scan for space, control characters or EoBuffer
+                                int p = buffer.position();
+                                int i = HttpTokens.indexOfControl(buffer, p, buffer.limit(), HttpTokens.SPACE + 1);
+                                int len = i - p;
+                                _headerBytes += len;
+
+                                if (_maxHeaderBytes > 0 && ++_headerBytes > _maxHeaderBytes)
+                                {
+                                    LOG.warn("URI is too large >{}", _maxHeaderBytes);
+                                    throw new BadMessageException(HttpStatus.URI_TOO_LONG_414);
+                                }
                                 if (buffer.hasArray())
                                 {
-                                    byte[] array = buffer.array();
-                                    int p = buffer.arrayOffset() + buffer.position();
-                                    int l = buffer.arrayOffset() + buffer.limit();
-                                    int i = p;
-                                    while (i < l && array[i] > HttpTokens.SPACE)
-                                    {
-                                        i++;
-                                    }
-
-                                    int len = i - p;
-                                    _headerBytes += len;
-
-                                    if (_maxHeaderBytes > 0 && ++_headerBytes > _maxHeaderBytes)
-                                    {
-                                        LOG.warn("URI is too large >{}", _maxHeaderBytes);
-                                        throw new BadMessageException(HttpStatus.URI_TOO_LONG_414);
-                                    }
-                                    _uri.append(array, p - 1, len + 1);
-                                    buffer.position(i - buffer.arrayOffset());
+                                    _uri.append(buffer.array(), buffer.arrayOffset() + p - 1, len + 1);
+                                    buffer.position(i);
                                 }
                                 else
+                                {
                                     _uri.append(t.getByte());
+                                    ByteBuffer uri = buffer.duplicate();
+                                    uri.limit(i);
+                                    _uri.append(uri);
+                                    buffer.position(i);
+                                }
                             }
                             break;
 
@@ -1088,6 +1108,13 @@ public class HttpParser
                     _fieldCache.add(_field);
                 }
             }
+            else if (_field == null && _headerString != null && _valueString != null && _fieldCache.cacheable(_valueString))
+            {
+                // Unknown headers are cached only if they recur with the same value.
+                _field = new HttpField(null, _headerString, _valueString);
+                if (_fieldCache.recur(_field))
+                    _fieldCache.add(_field);
+            }
             if (LOG.isDebugEnabled())
                 LOG.debug("parsedHeader({}) header={}, headerString=[{}], valueString=[{}]", _field, _header, _headerString, _valueString);
             _handler.parsedHeader(_field != null ? _field : new HttpField(_header, _headerString, _valueString));
@@ -1266,7 +1293,8 @@ public class HttpParser
                             if (buffer.hasRemaining())
                             {
                                 // Try a look ahead for the known header name and value.
-                                HttpField cachedField = _fieldCache.getBest(buffer, -1, buffer.remaining());
+                                HttpField learnedField = _fieldCache.getBest(buffer, -1, buffer.remaining());
+                                HttpField cachedField = learnedField;
                                 if (cachedField == null)
                                     cachedField = CACHE.getBest(buffer, -1, buffer.remaining());
 
@@ -1315,6 +1343,8 @@ public class HttpParser
                                     byte peek = buffer.get(pos);
                                     if (peek == HttpTokens.CARRIAGE_RETURN || peek == HttpTokens.LINE_FEED)
                                     {
+                                        if (learnedField != null)
+                                            _fieldCache.hit(learnedField);
                                         _field = cachedField;
                                         _valueString = v;
                                         setState(FieldState.IN_VALUE);
@@ -1481,6 +1511,7 @@ public class HttpParser
                         case OTEXT: // TODO review? should this be a utf8 string?
                             _string.append(t.getChar());
                             _length = _string.length();
+                            quickScanValue(buffer);
                             break;
 
                         default:
@@ -1496,6 +1527,32 @@ public class HttpParser
         return false;
     }
 
+    /**
+     * Quick scan of a field value for the bytes that can be appended without
+     * being tokenized, that is up to the next control character or EoBuffer.
+     */
+    private void quickScanValue(ByteBuffer buffer)
+    {
+        int p = buffer.position();
+        int l = buffer.limit();
+        // Leave the bytes past the max header bytes to
+        // the slow path, which reports the failure.
+        if (_maxHeaderBytes > 0)
+            l = Math.min(l, p + Math.max(0, _maxHeaderBytes - _headerBytes));
+        int i = HttpTokens.indexOfControl(buffer, p, l, HttpTokens.SPACE);
+        if (i == p)
+            return;
+        _headerBytes += i - p;
+        for (int j = p; j < i; ++j)
+        {
+            byte b = buffer.get(j);
+            _string.append((char)(0xff & b));
+            if (b != HttpTokens.SPACE)
+                _length = _string.length();
+        }
+        buffer.position(i);
+    }
+
     /**
      * Parse until next Event.
      *
@@ -2033,10 +2090,16 @@ public class HttpParser
 
     private static class FieldCache
     {
+        private static final int MAX_CANDIDATES = 64;
+
         private int _size = 1024;
         private Index.Mutable<HttpField> _cache;
         private List<HttpField> _cacheableFields;
         private boolean _caseSensitive;
+        private final Map<HttpField, int[]> _fieldHits = new IdentityHashMap<>();
+        private final Map<HttpField, Boolean> _candidates = new HashMap<>();
+        private long _hits;
+        private long _misses;
 
         public int getCapacity()
         {
@@ -2050,6 +2113,8 @@ public class HttpParser
                 _cache = NO_CACHE;
             else
                 _cache = null;
+            _fieldHits.clear();
+            _candidates.clear();
         }
 
         public boolean isCaseSensitive()
@@ -2072,24 +2137,87 @@ public class HttpParser
             return _cache;
         }
 
+        public long getHits()
+        {
+            return _hits;
+        }
+
+        public long getMisses()
+        {
+            return _misses;
+        }
+
         public HttpField getBest(ByteBuffer buffer, int i, int remaining)
         {
             Index.Mutable<HttpField> cache = _cache;
             return cache == null ? null : _cache.getBest(buffer, i, remaining);
         }
 
+        public void hit(HttpField field)
+        {
+            ++_hits;
+            int[] hits = _fieldHits.get(field);
+            if (hits != null)
+                ++hits[0];
+        }
+
+        /**
+         * @param field an unknown field
+         * @return whether the field was already seen since the candidates were last cleared
+         */
+        public boolean recur(HttpField field)
+        {
+            if (_candidates.remove(field) != null)
+                return true;
+            ++_misses;
+            if (_candidates.size() >= MAX_CANDIDATES)
+                _candidates.clear();
+            _candidates.put(field, Boolean.TRUE);
+            return false;
+        }
+
         public void add(HttpField field)
         {
+            ++_misses;
             if (_cache == null)
             {
                 if (_cacheableFields == null)
                     _cacheableFields = new ArrayList<>();
                 _cacheableFields.add(field);
             }
-            else if (!_cache.put(field))
+            else if (_cache.put(field))
+            {
+                _fieldHits.put(field, new int[1]);
+            }
+            else
+            {
+                evict();
+                if (_cache.put(field))
+                    _fieldHits.put(field, new int[1]);
+            }
+        }
+
+        /**
+         * <p>Rebuilds the full cache with only the fields that were matched since the
+         * last eviction, most frequently matched first; the hit counts are halved so
+         * that fields that stop recurring are eventually evicted.</p>
+         */
+        private void evict()
+        {
+            List<Map.Entry<HttpField, int[]>> entries = new ArrayList<>(_fieldHits.entrySet());
+            entries.sort((e1, e2) -> Integer.compare(e2.getValue()[0], e1.getValue()[0]));
+            _cache.clear();
+            _fieldHits.clear();
+            // Leave room for the new fields.
+            int retain = entries.size() / 2;
+            for (int i = 0; i < retain; ++i)
             {
-                _cache.clear();
-                _cache.put(field);
+                Map.Entry<HttpField, int[]> entry = entries.get(i);
+                int hits = entry.getValue()[0];
+                if (hits == 0 || !_cache.put(entry.getKey()))
+                    break;
+                entry.getValue()[0] = hits / 2;
+                _fieldHits.put(entry.getKey(), entry.getValue());
             }
         }
 
@@ -2098,6 +2226,19 @@ public class HttpParser
             return isEnabled() && header != null && valueString.length() <= _size;
         }
 
+        public boolean cacheable(String valueString)
+        {
+            if (!isEnabled() || valueString.length() > _size)
+                return false;
+            // Only ASCII fields can be held by the cache.
+            for (int i = 0; i < valueString.length(); ++i)
+            {
+                if (valueString.charAt(i) > 0x7F)
+                    return false;
+            }
+            return true;
+        }
+
         private void prepare()
         {
             if (_cache == null && _cacheableFields != null)
@@ -2107,6 +2248,7 @@ public class HttpParser
                 {
                     if (!_cache.put(f))
                         break;
+                    _fieldHits.put(f, new int[1]);
                 }
                 _cacheableFields.clear();
                 _cacheableFields = null;
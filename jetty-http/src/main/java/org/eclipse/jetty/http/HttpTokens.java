@@ -13,6 +13,11 @@
 
 package org.eclipse.jetty.http;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import org.eclipse.jetty.util.TypeUtil;
 
 /**
@@ -26,6 +31,12 @@ public class HttpTokens
     static final byte CARRIAGE_RETURN = 0x0D;
     static final byte SPACE = 0x20;
     static final byte[] CRLF = {CARRIAGE_RETURN, LINE_FEED};
+    static final byte DELETE = 0x7F;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
 
     public enum EndOfContent
     {
@@ -232,6 +243,48 @@ public class HttpTokens
         }
     }
 
+    /**
+     * <p>Finds the index of the first byte in the given range of the buffer that is
+     * less than the given {@code lowest} byte, or that is {@link #DELETE}.</p>
+     * <p>Bytes are examined 8 at a time with SWAR (SIMD within a register) arithmetic,
+     * so that runs of visible characters and obs-text, which are the vast majority of
+     * the bytes of request lines and field values, are skipped without being tokenized
+     * one by one.</p>
+     *
+     * @param buffer the buffer to scan, whose position and limit are not modified
+     * @param from the index of the first byte to scan
+     * @param to the index after the last byte to scan
+     * @param lowest the lowest byte value not to stop at, at most {@code 0x80};
+     * {@link #SPACE} stops at control characters, {@code SPACE + 1} also at {@link #SPACE}
+     * @return the index of the first byte to stop at, or {@code to} if there is none
+     */
+    static int indexOfControl(ByteBuffer buffer, int from, int to, int lowest)
+    {
+        // Adding this to the low 7 bits of a byte carries into its high bit
+        // if and only if the low 7 bits are greater than or equal to lowest.
+        long lowestComplement = (0x80 - lowest) * ONES;
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES)
+        {
+            long word = (long)LONGS.get(buffer, i);
+            // High bit set for bytes less than lowest, excluding obs-text.
+            long less = ~(((word & LOW_BITS) + lowestComplement) | word) & HIGH_BITS;
+            // High bit set for bytes equal to DELETE.
+            long delete = word ^ LOW_BITS;
+            delete = ~(((delete & LOW_BITS) + LOW_BITS) | delete) & HIGH_BITS;
+            long found = less | delete;
+            if (found != 0)
+                return i + (Long.numberOfLeadingZeros(found) >>> 3);
+        }
+        for (; i < to; ++i)
+        {
+            byte b = buffer.get(i);
+            if (b >= 0 && (b < lowest || b == DELETE))
+                return i;
+        }
+        return to;
+    }
+
     /**
      * This is used when decoding to not decode illegal characters based on RFC9110.
      * CR, LF, or NUL are replaced with ' ', all other control and multibyte characters
@@ -1375,6 +1375,26 @@ public interface HttpURI
                 else
                     _decodedPath = _path.substring(0, _path.length() - _param.length() - 1);
             }
+            else if (_path != null && encodedCharacters > 0)
+            {
+                throw new IllegalArgumentException("Bad URI % encoding");
+            }
+            else if (_path != null && !dot && _violations.isEmpty())
+            {
+                // Without dot segments or ambiguous encodings, the decoded path cannot need to
+                // be canonicalized nor be rejected, so it is decoded by getDecodedPath().
+                // This does not save the decoding of server requests, whose path in context is
+                // always decoded by Request.setMetaData(), but it does for the URIs that are
+                // only parsed to be forwarded or compared, for example by clients and proxies.
+                _decodedPath = null;
+            }
+            else if (_path != null && !encodedPath && _param == null)
+            {
+                // Only dot segments need to be removed.
+                _decodedPath = URIUtil.canonicalPath(_path);
+                if (_decodedPath == null)
+                    throw new IllegalArgumentException("Bad URI");
+            }
             else if (_path != null)
             {
                 // The RFC requires this to be canonical before decoding, but this can leave dot segments and dot dot segments
@@ -13,6 +13,8 @@
 
 package org.eclipse.jetty.http.compression;
 
+import org.eclipse.jetty.http.HttpTokens;
+
 /**
  * This class contains the Huffman Codes defined in RFC7541.
  */
@@ -294,6 +296,16 @@ public class Huffman
     static final char[] rowsym;
     static final byte[] rowbits;
 
+    // Number of bits looked up at once by the lookahead table.
+    static final int LOOKAHEAD_BITS = 12;
+
+    // Lookahead table indexed by the next LOOKAHEAD_BITS bits of input, which decodes
+    // up to two symbols with short codes at once. Each entry holds the first (sanitized)
+    // symbol in bits 0-7, the second symbol in bits 8-15, the length of the first code
+    // in bits 16-19 and the combined length of both codes in bits 20-23.
+    // A zero length means that there is no symbol with a code short enough.
+    static final int[] lookahead;
+
     // Build the Huffman lookup tree and LC TABLE
     static
     {
@@ -348,5 +360,36 @@ public class Huffman
                 tree[i] = (char)terminal;
             }
         }
+
+        int size = 1 << LOOKAHEAD_BITS;
+        int[] first = new int[size];
+        for (int sym = 0; sym < CODES.length; sym++)
+        {
+            int len = CODES[sym][1];
+            if (len > LOOKAHEAD_BITS)
+                continue;
+            int shift = LOOKAHEAD_BITS - len;
+            int start = CODES[sym][0] << shift;
+            int end = start + (1 << shift);
+            for (int i = start; i < end; i++)
+            {
+                first[i] = (len << 16) | HttpTokens.sanitizeFieldVchar((char)sym);
+            }
+        }
+
+        lookahead = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            int entry = first[i];
+            int len1 = (entry >>> 16) & 0xF;
+            if (len1 != 0)
+            {
+                int second = first[(i << len1) & (size - 1)];
+                int len2 = (second >>> 16) & 0xF;
+                if (len2 != 0 && len1 + len2 <= LOOKAHEAD_BITS)
+                    entry |= ((len1 + len2) << 20) | ((second & 0xFF) << 8);
+            }
+            lookahead[i] = entry;
+        }
     }
 }
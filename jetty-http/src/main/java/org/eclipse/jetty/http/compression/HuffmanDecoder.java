@@ -14,10 +14,13 @@
 package org.eclipse.jetty.http.compression;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.eclipse.jetty.http.HttpTokens;
-import org.eclipse.jetty.util.CharsetStringBuilder;
 
+import static org.eclipse.jetty.http.compression.Huffman.LOOKAHEAD_BITS;
+import static org.eclipse.jetty.http.compression.Huffman.lookahead;
 import static org.eclipse.jetty.http.compression.Huffman.rowbits;
 import static org.eclipse.jetty.http.compression.Huffman.rowsym;
 
@@ -29,11 +32,13 @@ import static org.eclipse.jetty.http.compression.Huffman.rowsym;
  */
 public class HuffmanDecoder
 {
-    private final CharsetStringBuilder.Iso88591StringBuilder _builder = new CharsetStringBuilder.Iso88591StringBuilder();
+    // The decoded ISO-8859-1 octets, converted to a String once complete.
+    private byte[] _bytes = new byte[64];
+    private int _size;
     private int _length = 0;
     private int _count = 0;
     private int _node = 0;
-    private int _current = 0;
+    private long _current = 0;
     private int _bits = 0;
 
     /**
@@ -53,83 +58,135 @@ public class HuffmanDecoder
      */
     public String decode(ByteBuffer buffer) throws EncodingException
     {
-        for (; _count < _length; _count++)
+        // Work on locals, and only store the state back if more input is needed.
+        long current = _current;
+        int bits = _bits;
+        int node = _node;
+        int count = _count;
+
+        while (true)
         {
-            if (!buffer.hasRemaining())
-                return null;
+            // Fill the bit accumulator with as many bytes as it can take.
+            while (bits <= 56 && count < _length && buffer.hasRemaining())
+            {
+                current = (current << 8) | (buffer.get() & 0xFF);
+                bits += 8;
+                count++;
+            }
 
-            int b = buffer.get() & 0xFF;
-            _current = (_current << 8) | b;
-            _bits += 8;
-            while (_bits >= 8)
+            if (node == 0 && bits > 0)
             {
-                int i = (_current >>> (_bits - 8)) & 0xFF;
-                _node = Huffman.tree[_node * 256 + i];
-                if (rowbits[_node] != 0)
+                // Try to decode up to two symbols with short codes at once,
+                // padding with zeros if fewer bits than the lookahead are available.
+                int i = (int)(bits >= LOOKAHEAD_BITS
+                    ? current >>> (bits - LOOKAHEAD_BITS)
+                    : current << (LOOKAHEAD_BITS - bits)) & ((1 << LOOKAHEAD_BITS) - 1);
+                int entry = lookahead[i];
+                int len = (entry >>> 16) & 0xF;
+                if (len != 0 && len <= bits)
                 {
-                    if (rowsym[_node] == Huffman.EOS)
+                    append((byte)entry);
+                    int len2 = (entry >>> 20) & 0xF;
+                    if (len2 != 0 && len2 <= bits)
                     {
-                        reset();
-                        throw new EncodingException("eos_in_content");
+                        append((byte)(entry >>> 8));
+                        len = len2;
                     }
-
-                    // terminal node
-                    char c = rowsym[_node];
-                    c = HttpTokens.sanitizeFieldVchar(c);
-                    _builder.append((byte)c);
-                    _bits -= rowbits[_node];
-                    _node = 0;
+                    bits -= len;
+                    continue;
                 }
-                else
+            }
+
+            if (bits < 8)
+                break;
+
+            // Walk the tree a byte at a time for long codes.
+            int i = (int)(current >>> (bits - 8)) & 0xFF;
+            node = Huffman.tree[node * 256 + i];
+            if (rowbits[node] != 0)
+            {
+                if (rowsym[node] == Huffman.EOS)
                 {
-                    // non-terminal node
-                    _bits -= 8;
+                    reset();
+                    throw new EncodingException("eos_in_content");
                 }
+
+                // terminal node
+                char c = rowsym[node];
+                c = HttpTokens.sanitizeFieldVchar(c);
+                append((byte)c);
+                bits -= rowbits[node];
+                node = 0;
             }
+            else
+            {
+                // non-terminal node
+                bits -= 8;
+            }
+        }
+
+        if (count < _length)
+        {
+            // Wait for more input.
+            _current = current;
+            _bits = bits;
+            _node = node;
+            _count = count;
+            return null;
         }
 
-        while (_bits > 0)
+        while (bits > 0)
         {
-            int i = (_current << (8 - _bits)) & 0xFF;
-            int lastNode = _node;
-            _node = Huffman.tree[_node * 256 + i];
+            int i = (int)(current << (8 - bits)) & 0xFF;
+            int lastNode = node;
+            node = Huffman.tree[node * 256 + i];
 
-            if (rowbits[_node] == 0 || rowbits[_node] > _bits)
+            if (rowbits[node] == 0 || rowbits[node] > bits)
             {
                 int requiredPadding = 0;
-                for (int j = 0; j < _bits; j++)
+                for (int j = 0; j < bits; j++)
                 {
                     requiredPadding = (requiredPadding << 1) | 1;
                 }
 
-                if ((i >> (8 - _bits)) != requiredPadding)
+                if ((i >> (8 - bits)) != requiredPadding)
+                {
+                    reset();
                     throw new EncodingException("incorrect_padding");
+                }
 
-                _node = lastNode;
+                node = lastNode;
                 break;
             }
 
-            char c = rowsym[_node];
+            char c = rowsym[node];
             c = HttpTokens.sanitizeFieldVchar(c);
-            _builder.append((byte)c);
-            _bits -= rowbits[_node];
-            _node = 0;
+            append((byte)c);
+            bits -= rowbits[node];
+            node = 0;
         }
 
-        if (_node != 0)
+        if (node != 0)
         {
             reset();
             throw new EncodingException("bad_termination");
         }
 
-        String value = _builder.build();
+        String value = new String(_bytes, 0, _size, StandardCharsets.ISO_8859_1);
         reset();
         return value;
     }
 
+    private void append(byte b)
+    {
+        if (_size == _bytes.length)
+            _bytes = Arrays.copyOf(_bytes, _size * 2);
+        _bytes[_size++] = b;
+    }
+
     public void reset()
     {
-        _builder.reset();
+        _size = 0;
         _count = 0;
         _current = 0;
         _node = 0;
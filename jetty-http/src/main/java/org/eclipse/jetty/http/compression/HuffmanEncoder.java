@@ -83,6 +83,73 @@ public class HuffmanEncoder
         encode(LCCODES, buffer, s);
     }
 
+    /**
+     * <p>Encodes the string preceded by its encoded length as an N-bit integer, in a single pass.</p>
+     * <p>This is equivalent to encoding {@link #octetsNeeded(String)} with
+     * {@link NBitIntegerEncoder#encode(ByteBuffer, int, long)} followed by {@link #encode(ByteBuffer, String)},
+     * but the string is only iterated once.</p>
+     *
+     * @param buffer the buffer to encode into.
+     * @param prefix the prefix used to encode the length.
+     * @param s the string to encode.
+     */
+    public static void encodeWithLength(ByteBuffer buffer, int prefix, String s)
+    {
+        encodeWithLength(CODES, buffer, prefix, s);
+    }
+
+    /**
+     * <p>Encodes the string in lowercase preceded by its encoded length as an N-bit integer, in a single pass.</p>
+     *
+     * @param buffer the buffer to encode into.
+     * @param prefix the prefix used to encode the length.
+     * @param s the string to encode.
+     * @see #encodeWithLength(ByteBuffer, int, String)
+     */
+    public static void encodeLowerCaseWithLength(ByteBuffer buffer, int prefix, String s)
+    {
+        encodeWithLength(LCCODES, buffer, prefix, s);
+    }
+
+    private static void encodeWithLength(final int[][] table, ByteBuffer buffer, int prefix, String s)
+    {
+        // Reserve space for the length of the shortest possible encoding (all codes are
+        // at least 5 bits), then encode the string after it. The reserved space is
+        // never too large, so the encoding never goes beyond its final position.
+        int start = buffer.position();
+        int reserved = lengthOctets(prefix, (s.length() * 5 + 7) / 8);
+        buffer.position(start + reserved);
+        encode(table, buffer, s);
+        int end = buffer.position();
+        int encoded = end - start - reserved;
+
+        int needed = lengthOctets(prefix, encoded);
+        if (needed != reserved)
+        {
+            // Rarely, the length needs more octets, so move the encoded string along.
+            byte[] bytes = new byte[encoded];
+            buffer.position(start + reserved);
+            buffer.get(bytes);
+            buffer.position(start + needed);
+            buffer.put(bytes);
+            end = buffer.position();
+        }
+
+        buffer.position(start);
+        NBitIntegerEncoder.encode(buffer, prefix, encoded);
+        buffer.position(end);
+    }
+
+    /**
+     * @return the number of octets written by {@link NBitIntegerEncoder#encode(ByteBuffer, int, long)},
+     * which for a prefix smaller than 8 does not include the already written prefix octet.
+     */
+    private static int lengthOctets(int prefix, int length)
+    {
+        int octets = NBitIntegerEncoder.octetsNeeded(prefix, length);
+        return prefix == 8 ? octets : octets - 1;
+    }
+
     private static int octetsNeeded(final int[][] table, String s)
     {
         int needed = 0;
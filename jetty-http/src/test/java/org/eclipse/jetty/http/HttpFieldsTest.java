@@ -1072,4 +1072,55 @@ public class HttpFieldsTest
         fields.ensureField(new HttpField("Test", "three, four"));
         assertThat(fields.stream().map(HttpField::toString).collect(Collectors.toList()), contains("Test: one, two, three, four"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testManyFields()
+    {
+        HttpFields.Mutable fields = HttpFields.build();
+        for (int i = 0; i < 100; i++)
+        {
+            fields.add("X-Header-" + i, "value" + i);
+        }
+        fields.add(HttpHeader.HOST, "localhost");
+        fields.add("x-header-7", "other");
+
+        // Lookups are case insensitive and return the first field.
+        assertEquals("value7", fields.get("X-HEADER-7"));
+        assertEquals("localhost", fields.get(HttpHeader.HOST));
+        assertEquals("localhost", fields.get("host"));
+        assertNull(fields.get("X-Header-100"));
+        assertNull(fields.getField(HttpHeader.ACCEPT));
+
+        // Put replaces the first field and removes the others.
+        fields.put("X-Header-7", "put");
+        assertEquals(101, fields.size());
+        assertEquals("put", fields.getField(7).getValue());
+        assertThat(fields.getValuesList("x-header-7"), contains("put"));
+
+        // Lookups remain correct after positions have been shifted.
+        fields.remove("X-Header-0");
+        fields.remove(HttpHeader.HOST);
+        assertEquals(99, fields.size());
+        assertFalse(fields.contains("X-Header-0"));
+        assertFalse(fields.contains(HttpHeader.HOST));
+        assertEquals("value50", fields.get("X-Header-50"));
+        assertEquals(fields.getField(49), fields.getField("X-Header-50"));
+
+        ListIterator<HttpField> iterator = fields.listIterator();
+        iterator.next();
+        iterator.set(new HttpField("X-Replaced", "replaced"));
+        iterator.add(new HttpField("X-Added", "added"));
+        assertNull(fields.get("X-Header-1"));
+        assertEquals("replaced", fields.get("x-replaced"));
+        assertEquals("added", fields.getField(1).getValue());
+        assertEquals("added", fields.get("X-Added"));
+        assertEquals("value99", fields.get("X-Header-99"));
+
+        fields.computeField("X-Header-99", (name, list) -> null);
+        assertNull(fields.get("X-Header-99"));
+        assertEquals(99, fields.size());
+
+        fields.clear();
+        assertNull(fields.get("X-Header-2"));
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -213,6 +214,63 @@ public class HttpGeneratorServerTest
         assertThat(response, containsString("\r\n0123456789"));
     }
 
+    @Test
+    public void testFieldCache() throws Exception
+    {
+        ByteBuffer header = BufferUtil.allocate(8096);
+        HttpFields.Mutable fields = HttpFields.build();
+        fields.add(HttpHeader.CONTENT_TYPE, "text/plain;charset=utf-8");
+        fields.add(HttpHeader.CACHE_CONTROL, "no-store,\r\nprivate");
+        fields.add(HttpHeader.VARY, "Accept-Encoding");
+        fields.add(HttpHeader.ETAG, "W/\"12345\"");
+        MetaData.Response info = new MetaData.Response(HttpVersion.HTTP_1_1, 200, null, fields, 0);
+
+        HttpGenerator gen = new HttpGenerator();
+        // Fields are only cached the second time they are seen.
+        for (int i = 0; i < 2; i++)
+        {
+            gen.generateResponse(info, false, header, null, null, true);
+            BufferUtil.clear(header);
+            gen.reset();
+        }
+        gen.generateResponse(info, false, header, null, null, true);
+        String first = BufferUtil.toString(header);
+        BufferUtil.clear(header);
+        gen.reset();
+
+        long hits = HttpGenerator.getFieldCacheHits();
+        gen.generateResponse(info, false, header, null, null, true);
+        String second = BufferUtil.toString(header);
+
+        // The recurring fields are encoded from the cache, sanitised as when they are not.
+        assertThat(HttpGenerator.getFieldCacheHits() - hits, greaterThanOrEqualTo(3L));
+        assertEquals(first, second);
+        assertThat(second, containsString("\r\nContent-Type: text/plain;charset=utf-8\r\n"));
+        assertThat(second, containsString("\r\nCache-Control: no-store,  private\r\n"));
+        assertThat(second, containsString("\r\nVary: Accept-Encoding\r\n"));
+        assertThat(second, containsString("\r\nETag: W/\"12345\"\r\n"));
+    }
+
+    @Test
+    public void testFieldCacheIgnoresOneOffValues() throws Exception
+    {
+        ByteBuffer header = BufferUtil.allocate(8096);
+        HttpGenerator gen = new HttpGenerator();
+        long hits = HttpGenerator.getFieldCacheHits();
+        for (int i = 0; i < 10; i++)
+        {
+            HttpFields.Mutable fields = HttpFields.build();
+            fields.add(HttpHeader.CONTENT_TYPE, "multipart/byteranges; boundary=testFieldCacheIgnoresOneOffValues" + i);
+            MetaData.Response info = new MetaData.Response(HttpVersion.HTTP_1_1, 200, null, fields, 0);
+            gen.generateResponse(info, false, header, null, null, true);
+            assertThat(BufferUtil.toString(header), containsString("\r\nContent-Type: multipart/byteranges; boundary=testFieldCacheIgnoresOneOffValues" + i + "\r\n"));
+            BufferUtil.clear(header);
+            gen.reset();
+        }
+        // Values seen only once are neither cached nor hit.
+        assertEquals(hits, HttpGenerator.getFieldCacheHits());
+    }
+
     @Test
     public void testSendServerXPoweredBy() throws Exception
     {
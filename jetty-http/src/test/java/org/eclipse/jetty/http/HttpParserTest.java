@@ -308,6 +308,68 @@ public class HttpParserTest
         assertEquals(1, _headers);
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testQuickScanURIAndFieldValues(boolean direct)
+    {
+        String request = "GET /path/to/some/resource?query=value&other=1234567890 HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "User-Agent: Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko)   \r\n" +
+            "X-Tab: one\ttwo three\r\n" +
+            "X-Obs-Text: caf\u00e9 au lait\r\n" +
+            "\r\n";
+        byte[] bytes = request.getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(bytes.length) : ByteBuffer.allocate(bytes.length);
+        buffer.put(bytes).flip();
+
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parseAll(parser, buffer);
+
+        assertTrue(_messageCompleted);
+        assertEquals("/path/to/some/resource?query=value&other=1234567890", _uriOrStatus);
+        assertEquals("User-Agent", _hdr[1]);
+        assertEquals("Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko)", _val[1]);
+        assertEquals("X-Tab", _hdr[2]);
+        assertEquals("one\ttwo three", _val[2]);
+        assertEquals("X-Obs-Text", _hdr[3]);
+        assertEquals("caf\u00e9 au lait", _val[3]);
+        assertEquals(3, _headers);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\u0000", "\u0001", "\u001f", "\u007f"})
+    public void testQuickScanFieldValueControlCharacter(String control)
+    {
+        ByteBuffer buffer = BufferUtil.toBuffer(
+            "GET / HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "X-Value: some long value" + control + "with a control character\r\n" +
+                "\r\n");
+
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parseAll(parser, buffer);
+
+        assertThat(_bad, containsString("Illegal character"));
+    }
+
+    @Test
+    public void testQuickScanFieldValueTooLarge()
+    {
+        ByteBuffer buffer = BufferUtil.toBuffer(
+            "GET / HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "X-Value: " + "x".repeat(256) + "\r\n" +
+                "\r\n");
+
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler, 128);
+        parseAll(parser, buffer);
+
+        assertEquals("431", _bad);
+    }
+
     @Test
     public void testFoldedField2616()
     {
@@ -2292,6 +2354,69 @@ public class HttpParserTest
         assertSame(field, _fields.get(0));
     }
 
+    @Test
+    @SuppressWarnings("ReferenceEquality")
+    public void testCachedUnknownField()
+    {
+        ByteBuffer buffer = BufferUtil.toBuffer(
+            "GET / HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "X-Tenant: acme\r\n" +
+                "\r\n");
+
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+
+        // Unknown fields are only cached once they recur.
+        parseAll(parser, buffer);
+        assertNull(parser.getFieldCache().get("X-Tenant: acme"));
+
+        buffer.position(0);
+        parseAll(parser, buffer);
+        HttpField field = parser.getFieldCache().get("X-Tenant: acme");
+        assertNotNull(field);
+        assertNull(field.getHeader());
+        assertEquals("acme", field.getValue());
+        assertEquals(1, parser.getHeaderCacheHits());
+
+        buffer.position(0);
+        parseAll(parser, buffer);
+        assertSame(field, _fields.get(1));
+        assertEquals(3, parser.getHeaderCacheHits());
+    }
+
+    @Test
+    @SuppressWarnings("ReferenceEquality")
+    public void testFieldCacheEvictsLeastHit()
+    {
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parser.setHeaderCacheSize(64);
+
+        HttpField cookie = null;
+        for (int i = 0; i < 16; ++i)
+        {
+            ByteBuffer buffer = BufferUtil.toBuffer(
+                "GET / HTTP/1.0\r\n" +
+                    "Cookie: a=1\r\n" +
+                    "User-Agent: " + i + "/agent\r\n" +
+                    "\r\n");
+            parseAll(parser, buffer);
+            assertEquals("a=1", _fields.get(0).getValue());
+            assertEquals(i + "/agent", _fields.get(1).getValue());
+            if (i == 1)
+                cookie = _fields.get(0);
+            else if (i > 1)
+                assertSame(cookie, _fields.get(0));
+        }
+
+        // The frequently matched field survived the evictions of the user agents.
+        assertEquals(15, parser.getHeaderCacheHits());
+        assertEquals(17, parser.getHeaderCacheMisses());
+        assertNotNull(parser.getFieldCache().get("Cookie: a=1"));
+        assertNull(parser.getFieldCache().get("User-Agent: 0/agent"));
+    }
+
     @Test
     public void testParseRequest()
     {
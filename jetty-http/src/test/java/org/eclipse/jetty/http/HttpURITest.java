@@ -620,6 +620,23 @@ public class HttpURITest
         assertThat(uri.hasAmbiguousEncoding(), is(expected.contains(Violation.AMBIGUOUS_PATH_ENCODING)));
     }
 
+    @Test
+    public void testLazyDecodedPath()
+    {
+        // Unambiguous encoded paths are decoded on demand, by both the mutable and the immutable.
+        HttpURI.Mutable mutable = HttpURI.build().pathQuery("/path/caf%C3%A9%20au%20lait;p/info?q=%20");
+        HttpURI immutable = mutable.asImmutable();
+        assertThat(mutable.getDecodedPath(), is("/path/café au lait/info"));
+        assertThat(immutable.getDecodedPath(), is("/path/café au lait/info"));
+        assertThat(mutable.getQuery(), is("q=%20"));
+
+        // Bad encodings are still rejected when parsing.
+        assertThrows(IllegalArgumentException.class, () -> HttpURI.build().pathQuery("/path/%2"));
+        assertThrows(IllegalArgumentException.class, () -> HttpURI.build().pathQuery("/path/%"));
+        assertThrows(IllegalArgumentException.class, () -> HttpURI.build().pathQuery("/path/%2g"));
+        assertThrows(IllegalArgumentException.class, () -> HttpURI.build().pathQuery("/path/%2e%2e/%2e%2e/%2e%2e"));
+    }
+
     public static Stream<Arguments> parseData()
     {
         return Stream.of(
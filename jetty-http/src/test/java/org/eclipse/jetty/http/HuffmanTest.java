@@ -20,6 +20,7 @@ import java.util.stream.Stream;
 import org.eclipse.jetty.http.compression.EncodingException;
 import org.eclipse.jetty.http.compression.HuffmanDecoder;
 import org.eclipse.jetty.http.compression.HuffmanEncoder;
+import org.eclipse.jetty.http.compression.NBitIntegerEncoder;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.StringUtil;
 import org.eclipse.jetty.util.TypeUtil;
@@ -31,6 +32,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class HuffmanTest
@@ -85,6 +87,56 @@ public class HuffmanTest
         assertEquals(hex.length() / 2, HuffmanEncoder.octetsNeeded(expected));
     }
 
+    @ParameterizedTest(name = "[{index}] spec={0}")
+    @MethodSource("data")
+    public void testDecodeSplit(String specSection, String hex, String expected) throws Exception
+    {
+        byte[] encoded = TypeUtil.fromHexString(hex);
+        HuffmanDecoder huffmanDecoder = new HuffmanDecoder();
+        huffmanDecoder.setLength(encoded.length);
+        String decoded = null;
+        for (int i = 0; i < encoded.length; i++)
+        {
+            assertNull(decoded, specSection);
+            decoded = huffmanDecoder.decode(ByteBuffer.wrap(encoded, i, 1));
+        }
+        assertEquals(expected, decoded, specSection);
+    }
+
+    public static Stream<Arguments> testEncodeWithLengthArguments()
+    {
+        return Stream.of(
+            Arguments.of(8, "www.example.com"),
+            Arguments.of(7, "no-cache"),
+            Arguments.of(7, ""),
+            Arguments.of(7, "x".repeat(150)),
+            // Encodes to more octets than the shortest possible encoding, so the length needs an extra octet.
+            Arguments.of(7, "X".repeat(150)),
+            Arguments.of(5, "Mon, 21 Oct 2013 20:13:21 GMT".repeat(10)),
+            Arguments.of(1, "https://www.example.com")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("testEncodeWithLengthArguments")
+    public void testEncodeWithLength(int prefix, String value)
+    {
+        ByteBuffer expected = BufferUtil.allocate(1024);
+        BufferUtil.clearToFill(expected);
+        expected.put((byte)0x80);
+        NBitIntegerEncoder.encode(expected, prefix, HuffmanEncoder.octetsNeeded(value));
+        HuffmanEncoder.encode(expected, value);
+        BufferUtil.flipToFlush(expected, 0);
+
+        ByteBuffer actual = BufferUtil.allocate(1024);
+        BufferUtil.clearToFill(actual);
+        actual.put((byte)0x80);
+        HuffmanEncoder.encodeWithLength(actual, prefix, value);
+        BufferUtil.flipToFlush(actual, 0);
+
+        assertEquals(BufferUtil.toHexString(expected), BufferUtil.toHexString(actual));
+    }
+
     public static Stream<Arguments> testDecode8859OnlyArguments()
     {
         return Stream.of(
@@ -394,6 +394,11 @@ public class HpackContext
                 LOG.debug(String.format("HdrTbl[%x] evictAll", HpackContext.this.hashCode()));
             if (size() > 0)
             {
+                for (Entry entry : _entries)
+                {
+                    if (entry != null)
+                        entry._slot = -1;
+                }
                 _fieldMap.clear();
                 _nameMap.clear();
                 _offset = 0;
@@ -79,6 +79,7 @@ public class HpackEncoder
     private static final PreEncodedHttpField C_SCHEME_HTTP = new PreEncodedHttpField(HttpHeader.C_SCHEME, "http");
     private static final PreEncodedHttpField C_SCHEME_HTTPS = new PreEncodedHttpField(HttpHeader.C_SCHEME, "https");
     private static final EnumMap<HttpMethod, PreEncodedHttpField> C_METHODS = new EnumMap<>(HttpMethod.class);
+    private static final int FIELD_CACHE_SIZE = 64;
 
     static
     {
@@ -99,6 +100,7 @@ public class HpackEncoder
     private int _maxHeaderListSize;
     private int _headerListSize;
     private boolean _validateEncoding = true;
+    private final CachedField[] _fieldCache = new CachedField[FIELD_CACHE_SIZE];
 
     public HpackEncoder()
     {
@@ -312,6 +314,16 @@ public class HpackEncoder
 
     public void encode(ByteBuffer buffer, HttpField field)
     {
+        // Field instances that are encoded repeatedly, such as constants, can skip
+        // the table lookups and the encoding of their name and value.
+        int cacheSlot = System.identityHashCode(field) & (FIELD_CACHE_SIZE - 1);
+        CachedField cached = _fieldCache[cacheSlot];
+        if (cached == null)
+            cached = _fieldCache[cacheSlot] = new CachedField();
+        else if (cached._field == field && encodeCached(buffer, cached))
+            return;
+
+        HttpField original = field;
         if (field.getValue() == null)
             field = new HttpField(field.getHeader(), field.getName(), "");
 
@@ -319,11 +331,16 @@ public class HpackEncoder
         _headerListSize += fieldSize + 32;
 
         String encoding = null;
+        int start = buffer.position();
+        // Whether the encoding does not depend on the dynamic table, so that it can be cached.
+        boolean contextFree = false;
 
         // Is there an index entry for the field?
         Entry entry = _context.get(field);
         if (entry != null)
         {
+            cached.set(original, fieldSize, entry, null);
+
             // This is a known indexed field, send as static or dynamic indexed.
             if (entry.isStatic())
             {
@@ -360,6 +377,7 @@ public class HpackEncoder
                     ((PreEncodedHttpField)field).putTo(buffer, HttpVersion.HTTP_2);
                     byte b = buffer.get(i);
                     indexed = b < 0 || b >= 0x40;
+                    contextFree = !indexed;
                     if (_debug)
                         encoding = indexed ? "PreEncodedIdx" : "PreEncoded";
                 }
@@ -379,6 +397,7 @@ public class HpackEncoder
                     // Known name, but different value.
                     // This is probably a custom field with changing value, so don't index.
                     indexed = false;
+                    contextFree = true;
                     encodeName(buffer, (byte)0x00, 4, field.getName(), null);
                     encodeValue(buffer, true, field.getValue());
                     if (_debug)
@@ -397,6 +416,7 @@ public class HpackEncoder
                     ((PreEncodedHttpField)field).putTo(buffer, HttpVersion.HTTP_2);
                     byte b = buffer.get(i);
                     indexed = b < 0 || b >= 0x40;
+                    contextFree = !indexed;
                     if (_debug)
                         encoding = indexed ? "PreEncodedIdx" : "PreEncoded";
                 }
@@ -404,6 +424,7 @@ public class HpackEncoder
                 {
                     // Non indexed field
                     indexed = false;
+                    contextFree = name == null || name.isStatic();
                     boolean neverIndex = NEVER_INDEX.contains(header);
                     boolean huffman = !DO_NOT_HUFFMAN.contains(header);
                     encodeName(buffer, neverIndex ? (byte)0x10 : (byte)0x00, 4, header.asString(), name);
@@ -419,6 +440,7 @@ public class HpackEncoder
                 {
                     // The field is too large or a non-zero content length, so do not index.
                     indexed = false;
+                    contextFree = name == null || name.isStatic();
                     encodeName(buffer, (byte)0x00, 4, header.asString(), name);
                     encodeValue(buffer, true, field.getValue());
                     if (_debug)
@@ -442,6 +464,23 @@ public class HpackEncoder
             // If we want the field referenced, then we add it to our table and reference set.
             if (indexed)
                 _context.add(field);
+            else if (contextFree)
+            {
+                // Only copy the encoding when the field instance is seen a second time,
+                // so that fields created for every request do not allocate.
+                if (cached._field == original)
+                {
+                    byte[] encoded = new byte[buffer.position() - start];
+                    ByteBuffer copy = buffer.duplicate();
+                    copy.position(start);
+                    copy.get(encoded);
+                    cached.set(original, fieldSize, null, encoded);
+                }
+                else
+                {
+                    cached.set(original, fieldSize, null, null);
+                }
+            }
         }
 
         if (_debug)
@@ -451,6 +490,38 @@ public class HpackEncoder
         }
     }
 
+    private boolean encodeCached(ByteBuffer buffer, CachedField cached)
+    {
+        Entry entry = cached._entry;
+        if (entry == null)
+        {
+            if (cached._encoded == null)
+                return false;
+            buffer.put(cached._encoded);
+        }
+        else if (entry.isStatic())
+        {
+            buffer.put(((StaticEntry)entry).getEncodedField());
+        }
+        else
+        {
+            // The entry may have been evicted from the dynamic table.
+            int index = _context.index(entry);
+            if (index <= 0)
+                return false;
+            buffer.put((byte)0x80);
+            NBitIntegerEncoder.encode(buffer, 7, index);
+        }
+        _headerListSize += cached._size + 32;
+
+        if (_debug)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("encode Cached:'{}' to '{}'", cached._field, BufferUtil.toHexString(buffer.duplicate().flip()));
+        }
+        return true;
+    }
+
     private void encodeName(ByteBuffer buffer, byte mask, int bits, String name, Entry entry)
     {
         buffer.put(mask);
@@ -459,8 +530,7 @@ public class HpackEncoder
             // leave name index bits as 0
             // Encode the name always with lowercase huffman
             buffer.put((byte)0x80);
-            NBitIntegerEncoder.encode(buffer, 7, HuffmanEncoder.octetsNeededLowerCase(name));
-            HuffmanEncoder.encodeLowerCase(buffer, name);
+            HuffmanEncoder.encodeLowerCaseWithLength(buffer, 7, name);
         }
         else
         {
@@ -472,4 +542,23 @@ public class HpackEncoder
     {
         NBitStringEncoder.encode(buffer, 8, value, huffman);
     }
+
+    /**
+     * A field instance with either its table entry, or its encoding when it does not depend on the dynamic table.
+     */
+    private static class CachedField
+    {
+        private HttpField _field;
+        private int _size;
+        private Entry _entry;
+        private byte[] _encoded;
+
+        private void set(HttpField field, int size, Entry entry, byte[] encoded)
+        {
+            _field = field;
+            _size = size;
+            _entry = entry;
+            _encoded = encoded;
+        }
+    }
 }
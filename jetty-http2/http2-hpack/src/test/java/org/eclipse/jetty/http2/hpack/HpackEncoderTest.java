@@ -309,6 +309,58 @@ public class HpackEncoderTest
         assertThat(context.size(), Matchers.is(1));
     }
 
+    @Test
+    public void testRepeatedFieldInstances() throws Exception
+    {
+        HttpField[] constants =
+            {
+                new HttpField(HttpHeader.CONTENT_TYPE, "application/json"),
+                new HttpField(HttpHeader.CACHE_CONTROL, "no-cache"),
+                new HttpField(HttpHeader.ETAG, "\"5d8c72a5edda8d6a\""),
+                new HttpField(HttpHeader.ACCEPT_ENCODING, "gzip, deflate"),
+                new HttpField("X-Api-Version", "2"),
+                new HttpField("X-Large", "x".repeat(300)),
+            };
+
+        // A small table so that the constant fields are evicted by the varying ones.
+        HpackEncoder encoder = newHpackEncoder(256);
+        HpackEncoder reference = newHpackEncoder(256);
+        HpackDecoder decoder = new HpackDecoder(8192);
+        decoder.setMaxTableCapacity(256);
+        for (int i = 0; i < 50; i++)
+        {
+            HttpFields.Mutable fields = HttpFields.build();
+            HttpFields.Mutable copies = HttpFields.build();
+            for (HttpField field : constants)
+            {
+                fields.add(field);
+                copies.add(new HttpField(field.getHeader(), field.getName(), field.getValue()));
+            }
+            HttpField varying = new HttpField("X-Request-Id", "request-" + (i % 7));
+            fields.add(varying);
+            copies.add(varying);
+
+            ByteBuffer buffer = BufferUtil.allocate(4096);
+            BufferUtil.clearToFill(buffer);
+            encoder.encode(buffer, new MetaData(HttpVersion.HTTP_2, fields));
+            BufferUtil.flipToFlush(buffer, 0);
+
+            // The same field instances must be encoded exactly as new ones would be.
+            ByteBuffer expected = BufferUtil.allocate(4096);
+            BufferUtil.clearToFill(expected);
+            reference.encode(expected, new MetaData(HttpVersion.HTTP_2, copies));
+            BufferUtil.flipToFlush(expected, 0);
+            assertEquals(BufferUtil.toHexString(expected), BufferUtil.toHexString(buffer));
+
+            MetaData decoded = decoder.decode(buffer);
+            assertEquals(fields.size(), decoded.getFields().size());
+            for (HttpField field : fields)
+            {
+                assertEquals(field.getValue(), decoded.getFields().get(field.getName()));
+            }
+        }
+    }
+
     private static HpackEncoder newHpackEncoder(int tableCapacity)
     {
         HpackEncoder encoder = new HpackEncoder();
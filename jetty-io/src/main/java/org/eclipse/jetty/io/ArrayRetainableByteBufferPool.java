@@ -15,15 +15,23 @@ package org.eclipse.jetty.io;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntUnaryOperator;
+import java.util.function.ToLongFunction;
 
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.NanoTime;
 import org.eclipse.jetty.util.Pool;
+import org.eclipse.jetty.util.ProcessorUtils;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.annotation.ManagedOperation;
@@ -40,6 +48,17 @@ import org.slf4j.LoggerFactory;
  * 2048, and so on.</p>
  * <p>The {@code maxHeapMemory} and {@code maxDirectMemory} default heuristic is to use {@link Runtime#maxMemory()}
  * divided by 4.</p>
+ * <p>Each bucket can optionally be split into a number of {@code stripes}, each stripe being a {@link Pool}
+ * holding a share of the {@code maxBucketSize} entries; a thread acquires from the stripe selected by its
+ * thread id and only spills over to the other stripes when its own stripe has no idle entry, which reduces
+ * the contention on the bucket entries when many threads acquire and release buffers concurrently.</p>
+ * <p>When {@link #setStatisticsEnabled(boolean) statistics} are enabled, each bucket records how many
+ * acquires it served from idle buffers, how many allocated a new buffer and how many could not be pooled,
+ * along with a histogram of the requested sizes within the bucket capacity range, which tells whether
+ * the configured capacities fit the actual demand.</p>
+ * <p>When a {@link #setSweepPeriod(long) sweep period} is configured, the peak number of buffers in use
+ * of each bucket is tracked and, once per period, the idle buffers exceeding that peak are evicted, so
+ * that each bucket retains no more buffers than its recent demand and cold buckets retain none.</p>
  */
 @SuppressWarnings("resource")
 @ManagedObject
@@ -47,8 +66,9 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
 {
     private static final Logger LOG = LoggerFactory.getLogger(ArrayRetainableByteBufferPool.class);
 
-    private final RetainedBucket[] _direct;
-    private final RetainedBucket[] _indirect;
+    private final StripedBucket[] _direct;
+    private final StripedBucket[] _indirect;
+    private final int _stripes;
     private final int _minCapacity;
     private final int _maxCapacity;
     private final long _maxHeapMemory;
@@ -56,6 +76,10 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
     private final AtomicLong _currentHeapMemory = new AtomicLong();
     private final AtomicLong _currentDirectMemory = new AtomicLong();
     private final IntUnaryOperator _bucketIndexFor;
+    private final AtomicLong _lastSweep = new AtomicLong(NanoTime.now());
+    private final LongAdder _unpooled = new LongAdder();
+    private volatile boolean _statisticsEnabled;
+    private volatile long _sweepPeriod;
 
     /**
      * Creates a new ArrayRetainableByteBufferPool with a default configuration.
@@ -95,6 +119,22 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         this(minCapacity, factor, maxCapacity, maxBucketSize, null, null, maxHeapMemory, maxDirectMemory);
     }
 
+    /**
+     * Creates a new ArrayRetainableByteBufferPool with the given configuration.
+     *
+     * @param minCapacity the minimum ByteBuffer capacity
+     * @param factor the capacity factor
+     * @param maxCapacity the maximum ByteBuffer capacity
+     * @param maxBucketSize the maximum number of ByteBuffers for each bucket
+     * @param maxHeapMemory the max heap memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param maxDirectMemory the max direct memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param stripes the number of stripes of each bucket, 1 for no striping or 0 to use the number of available processors
+     */
+    public ArrayRetainableByteBufferPool(int minCapacity, int factor, int maxCapacity, int maxBucketSize, long maxHeapMemory, long maxDirectMemory, int stripes)
+    {
+        this(minCapacity, factor, maxCapacity, maxBucketSize, null, null, maxHeapMemory, maxDirectMemory, stripes);
+    }
+
     /**
      * Creates a new ArrayRetainableByteBufferPool with the given configuration.
      *
@@ -129,6 +169,24 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
      * @param maxDirectMemory the max direct memory in bytes, -1 for unlimited memory or 0 to use default heuristic
      */
     protected ArrayRetainableByteBufferPool(int minCapacity, int factor, int maxCapacity, int maxBucketSize, IntUnaryOperator bucketIndexFor, IntUnaryOperator bucketCapacity, long maxHeapMemory, long maxDirectMemory)
+    {
+        this(minCapacity, factor, maxCapacity, maxBucketSize, bucketIndexFor, bucketCapacity, maxHeapMemory, maxDirectMemory, 1);
+    }
+
+    /**
+     * Creates a new ArrayRetainableByteBufferPool with the given configuration.
+     *
+     * @param minCapacity the minimum ByteBuffer capacity
+     * @param factor the capacity factor
+     * @param maxCapacity the maximum ByteBuffer capacity
+     * @param maxBucketSize the maximum number of ByteBuffers for each bucket
+     * @param bucketIndexFor a {@link IntUnaryOperator} that takes a capacity and returns a bucket index
+     * @param bucketCapacity a {@link IntUnaryOperator} that takes a bucket index and returns a capacity
+     * @param maxHeapMemory the max heap memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param maxDirectMemory the max direct memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param stripes the number of stripes of each bucket, 1 for no striping or 0 to use the number of available processors
+     */
+    protected ArrayRetainableByteBufferPool(int minCapacity, int factor, int maxCapacity, int maxBucketSize, IntUnaryOperator bucketIndexFor, IntUnaryOperator bucketCapacity, long maxHeapMemory, long maxDirectMemory, int stripes)
     {
         if (minCapacity <= 0)
             minCapacity = 0;
@@ -144,16 +202,24 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         if (bucketCapacity == null)
             bucketCapacity = i -> (i + 1) * f;
 
+        if (stripes <= 0)
+            stripes = ProcessorUtils.availableProcessors();
+        // Never have more stripes than entries, so that maxBucketSize is still honored.
+        stripes = Math.max(1, Math.min(stripes, maxBucketSize));
+
         int length = bucketIndexFor.applyAsInt(maxCapacity) + 1;
-        RetainedBucket[] directArray = new RetainedBucket[length];
-        RetainedBucket[] indirectArray = new RetainedBucket[length];
+        StripedBucket[] directArray = new StripedBucket[length];
+        StripedBucket[] indirectArray = new StripedBucket[length];
+        int lowerCapacity = minCapacity > 0 ? minCapacity - 1 : 0;
         for (int i = 0; i < directArray.length; i++)
         {
             int capacity = Math.min(bucketCapacity.applyAsInt(i), maxCapacity);
-            directArray[i] = new RetainedBucket(capacity, maxBucketSize);
-            indirectArray[i] = new RetainedBucket(capacity, maxBucketSize);
+            directArray[i] = new StripedBucket(lowerCapacity, capacity, maxBucketSize, stripes);
+            indirectArray[i] = new StripedBucket(lowerCapacity, capacity, maxBucketSize, stripes);
+            lowerCapacity = Math.max(lowerCapacity, capacity);
         }
 
+        _stripes = stripes;
         _minCapacity = minCapacity;
         _maxCapacity = maxCapacity;
         _direct = directArray;
@@ -175,12 +241,69 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         return _maxCapacity;
     }
 
+    @ManagedAttribute("The number of stripes of each bucket")
+    public int getStripes()
+    {
+        return _stripes;
+    }
+
+    @ManagedAttribute("Whether the acquire statistics of each bucket are recorded")
+    public boolean isStatisticsEnabled()
+    {
+        return _statisticsEnabled;
+    }
+
+    /**
+     * <p>Enables or disables the recording of the acquire statistics of each bucket.</p>
+     * <p>Statistics recorded across enabling and disabling are approximate.</p>
+     *
+     * @param statisticsEnabled whether to record the acquire statistics of each bucket
+     */
+    public void setStatisticsEnabled(boolean statisticsEnabled)
+    {
+        _statisticsEnabled = statisticsEnabled;
+    }
+
+    @ManagedAttribute("The period in ms after which the idle buffers exceeding the demand of each bucket are evicted, or 0 to never evict them")
+    public long getSweepPeriod()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_sweepPeriod);
+    }
+
+    /**
+     * <p>Sets the period after which the idle buffers exceeding the peak number of buffers
+     * in use of each bucket during the period are evicted.</p>
+     * <p>The sweep is performed by the thread that acquires a buffer once the period is elapsed.</p>
+     *
+     * @param sweepPeriod the sweep period in ms, or 0 to never sweep
+     * @see #sweep()
+     */
+    public void setSweepPeriod(long sweepPeriod)
+    {
+        _sweepPeriod = TimeUnit.MILLISECONDS.toNanos(Math.max(0, sweepPeriod));
+    }
+
+    private boolean isRecording()
+    {
+        return _statisticsEnabled || _sweepPeriod > 0;
+    }
+
     @Override
     public RetainableByteBuffer acquire(int size, boolean direct)
     {
-        RetainedBucket bucket = bucketFor(size, direct);
+        boolean recording = isRecording();
+        if (recording)
+            sweepIfExpired();
+
+        StripedBucket bucket = bucketFor(size, direct);
         if (bucket == null)
+        {
+            if (recording)
+                _unpooled.increment();
             return newRetainableByteBuffer(size, direct, this::removed);
+        }
+        if (recording)
+            bucket.recordAcquire(size);
         RetainedBucket.Entry entry = bucket.acquire();
 
         RetainableByteBuffer buffer;
@@ -192,8 +315,12 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
                 buffer = newRetainableByteBuffer(bucket._capacity, direct, retainedBuffer ->
                 {
                     BufferUtil.reset(retainedBuffer.getBuffer());
+                    if (isRecording())
+                        bucket.recordRelease();
                     reservedEntry.release();
                 });
+                if (recording)
+                    bucket.recordMiss();
                 reservedEntry.enable(buffer, true);
                 if (direct)
                     _currentDirectMemory.addAndGet(buffer.capacity());
@@ -203,11 +330,15 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
             }
             else
             {
+                if (recording)
+                    bucket.recordOverflow();
                 buffer = newRetainableByteBuffer(size, direct, this::removed);
             }
         }
         else
         {
+            if (recording)
+                bucket.recordHit();
             buffer = entry.getPooled();
             buffer.acquire();
         }
@@ -237,17 +368,23 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         return retainableByteBuffer;
     }
 
+    /**
+     * @param capacity the buffer capacity
+     * @param direct whether the buffer is direct or heap
+     * @return the pool for the given capacity, or the stripe of the current thread when buckets are striped
+     */
     protected Pool<RetainableByteBuffer> poolFor(int capacity, boolean direct)
     {
-        return bucketFor(capacity, direct);
+        StripedBucket bucket = bucketFor(capacity, direct);
+        return bucket == null ? null : bucket.stripe();
     }
 
-    private RetainedBucket bucketFor(int capacity, boolean direct)
+    private StripedBucket bucketFor(int capacity, boolean direct)
     {
         if (capacity < _minCapacity)
             return null;
         int idx = _bucketIndexFor.applyAsInt(capacity);
-        RetainedBucket[] buckets = direct ? _direct : _indirect;
+        StripedBucket[] buckets = direct ? _direct : _indirect;
         if (idx >= buckets.length)
             return null;
         return buckets[idx];
@@ -267,8 +404,8 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
 
     private long getByteBufferCount(boolean direct)
     {
-        RetainedBucket[] buckets = direct ? _direct : _indirect;
-        return Arrays.stream(buckets).mapToLong(RetainedBucket::size).sum();
+        StripedBucket[] buckets = direct ? _direct : _indirect;
+        return Arrays.stream(buckets).mapToLong(StripedBucket::size).sum();
     }
 
     @ManagedAttribute("The number of pooled direct ByteBuffers that are available")
@@ -285,7 +422,7 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
 
     private long getAvailableByteBufferCount(boolean direct)
     {
-        RetainedBucket[] buckets = direct ? _direct : _indirect;
+        StripedBucket[] buckets = direct ? _direct : _indirect;
         return Arrays.stream(buckets).mapToLong(bucket -> bucket.values().stream().filter(Pool.Entry::isIdle).count()).sum();
     }
 
@@ -323,9 +460,9 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
 
     private long getAvailableMemory(boolean direct)
     {
-        RetainedBucket[] buckets = direct ? _direct : _indirect;
+        StripedBucket[] buckets = direct ? _direct : _indirect;
         long total = 0L;
-        for (RetainedBucket bucket : buckets)
+        for (StripedBucket bucket : buckets)
         {
             int capacity = bucket._capacity;
             total += bucket.values().stream().filter(Pool.Entry::isIdle).count() * capacity;
@@ -333,6 +470,91 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         return total;
     }
 
+    @ManagedAttribute("The number of acquires served by an idle pooled buffer")
+    public long getHitCount()
+    {
+        return getStatistic(StripedBucket::getHitCount);
+    }
+
+    @ManagedAttribute("The number of acquires that allocated a new pooled buffer")
+    public long getMissCount()
+    {
+        return getStatistic(StripedBucket::getMissCount);
+    }
+
+    @ManagedAttribute("The number of acquires that allocated a non-pooled buffer because the bucket was full")
+    public long getOverflowCount()
+    {
+        return getStatistic(StripedBucket::getOverflowCount);
+    }
+
+    @ManagedAttribute("The number of acquires that allocated a non-pooled buffer because the size was out of the pooled range")
+    public long getUnpooledCount()
+    {
+        return _unpooled.sum();
+    }
+
+    private long getStatistic(ToLongFunction<StripedBucket> statistic)
+    {
+        return Arrays.stream(_direct).mapToLong(statistic).sum() + Arrays.stream(_indirect).mapToLong(statistic).sum();
+    }
+
+    @ManagedOperation(value = "Resets the acquire statistics", impact = "ACTION")
+    public void resetStatistics()
+    {
+        _unpooled.reset();
+        Arrays.stream(_direct).forEach(StripedBucket::resetStatistics);
+        Arrays.stream(_indirect).forEach(StripedBucket::resetStatistics);
+    }
+
+    private void sweepIfExpired()
+    {
+        long period = _sweepPeriod;
+        if (period <= 0)
+            return;
+        long now = NanoTime.now();
+        long lastSweep = _lastSweep.get();
+        if (NanoTime.elapsed(lastSweep, now) >= period && _lastSweep.compareAndSet(lastSweep, now))
+            sweep();
+    }
+
+    /**
+     * <p>Evicts, from each bucket, the idle buffers exceeding the peak number of buffers
+     * that were in use since the previous sweep, then resets the peak.</p>
+     * <p>Buckets that were not used since the previous sweep are thus emptied.</p>
+     */
+    @ManagedOperation(value = "Evicts the idle buffers exceeding the recent demand of each bucket", impact = "ACTION")
+    public void sweep()
+    {
+        sweepArray(_direct, _currentDirectMemory);
+        sweepArray(_indirect, _currentHeapMemory);
+    }
+
+    private void sweepArray(StripedBucket[] buckets, AtomicLong memoryCounter)
+    {
+        for (StripedBucket bucket : buckets)
+        {
+            int excess = bucket.size() - bucket.resetPeakInUse();
+            if (excess <= 0)
+                continue;
+            long clearedCapacity = 0L;
+            for (RetainedBucket.Entry entry : bucket.values())
+            {
+                if (excess <= 0)
+                    break;
+                if (entry.isIdle() && entry.remove())
+                {
+                    memoryCounter.addAndGet(-entry.getPooled().capacity());
+                    clearedCapacity += entry.getPooled().capacity();
+                    removed(entry.getPooled());
+                    --excess;
+                }
+            }
+            if (LOG.isDebugEnabled())
+                LOG.debug("swept {} bytes from {}", clearedCapacity, bucket);
+        }
+    }
+
     @ManagedOperation(value = "Clears this RetainableByteBufferPool", impact = "ACTION")
     public void clear()
     {
@@ -340,9 +562,9 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         clearArray(_indirect, _currentHeapMemory);
     }
 
-    private void clearArray(RetainedBucket[] poolArray, AtomicLong memoryCounter)
+    private void clearArray(StripedBucket[] poolArray, AtomicLong memoryCounter)
     {
-        for (RetainedBucket pool : poolArray)
+        for (StripedBucket pool : poolArray)
         {
             for (RetainedBucket.Entry entry : pool.values())
             {
@@ -378,11 +600,11 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         long now = NanoTime.now();
         long totalClearedCapacity = 0L;
 
-        RetainedBucket[] buckets = direct ? _direct : _indirect;
+        StripedBucket[] buckets = direct ? _direct : _indirect;
 
         while (totalClearedCapacity < excess)
         {
-            for (RetainedBucket bucket : buckets)
+            for (StripedBucket bucket : buckets)
             {
                 RetainedBucket.Entry oldestEntry = findOldestEntry(now, bucket);
                 if (oldestEntry == null)
@@ -409,10 +631,11 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
     @Override
     public String toString()
     {
-        return String.format("%s{min=%d,max=%d,buckets=%d,heap=%d/%d,direct=%d/%d}",
+        return String.format("%s{min=%d,max=%d,buckets=%d,stripes=%d,heap=%d/%d,direct=%d/%d}",
             super.toString(),
             _minCapacity, _maxCapacity,
             _direct.length,
+            _stripes,
             _currentHeapMemory.get(), _maxHeapMemory,
             _currentDirectMemory.get(), _maxDirectMemory);
     }
@@ -428,7 +651,7 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
             DumpableCollection.fromArray("indirect", _indirect));
     }
 
-    private Pool<RetainableByteBuffer>.Entry findOldestEntry(long now, Pool<RetainableByteBuffer> bucket)
+    private Pool<RetainableByteBuffer>.Entry findOldestEntry(long now, StripedBucket bucket)
     {
         RetainedBucket.Entry oldestEntry = null;
         for (RetainedBucket.Entry entry : bucket.values())
@@ -447,6 +670,213 @@ public class ArrayRetainableByteBufferPool implements RetainableByteBufferPool,
         return oldestEntry;
     }
 
+    private static class StripedBucket implements Dumpable
+    {
+        private static final int HISTOGRAM_SLOTS = 8;
+
+        private final RetainedBucket[] _stripes;
+        private final int _lowerCapacity;
+        private final int _capacity;
+        private final LongAdder[] _histogram = new LongAdder[HISTOGRAM_SLOTS];
+        private final LongAdder _hits = new LongAdder();
+        private final LongAdder _misses = new LongAdder();
+        private final LongAdder _overflows = new LongAdder();
+        private final AtomicInteger _inUse = new AtomicInteger();
+        private final AtomicInteger _peakInUse = new AtomicInteger();
+
+        StripedBucket(int lowerCapacity, int capacity, int maxBucketSize, int stripes)
+        {
+            _lowerCapacity = lowerCapacity;
+            _capacity = capacity;
+            for (int i = 0; i < _histogram.length; i++)
+            {
+                _histogram[i] = new LongAdder();
+            }
+            _stripes = new RetainedBucket[stripes];
+            // Distribute the entries so that the sum of the stripe sizes is maxBucketSize.
+            int size = maxBucketSize / stripes;
+            int remainder = maxBucketSize % stripes;
+            for (int i = 0; i < stripes; i++)
+            {
+                _stripes[i] = new RetainedBucket(capacity, i < remainder ? size + 1 : size);
+            }
+        }
+
+        private int stripeIndex()
+        {
+            return _stripes.length == 1 ? 0 : (int)(Thread.currentThread().getId() % _stripes.length);
+        }
+
+        RetainedBucket stripe()
+        {
+            return _stripes[stripeIndex()];
+        }
+
+        RetainedBucket.Entry acquire()
+        {
+            int index = stripeIndex();
+            for (int i = 0; i < _stripes.length; i++)
+            {
+                RetainedBucket.Entry entry = _stripes[(index + i) % _stripes.length].acquire();
+                if (entry != null)
+                    return entry;
+            }
+            return null;
+        }
+
+        RetainedBucket.Entry reserve()
+        {
+            int index = stripeIndex();
+            for (int i = 0; i < _stripes.length; i++)
+            {
+                RetainedBucket.Entry entry = _stripes[(index + i) % _stripes.length].reserve();
+                if (entry != null)
+                    return entry;
+            }
+            return null;
+        }
+
+        int size()
+        {
+            int size = 0;
+            for (RetainedBucket stripe : _stripes)
+            {
+                size += stripe.size();
+            }
+            return size;
+        }
+
+        void recordAcquire(int size)
+        {
+            // The histogram slots split the range of sizes (lowerCapacity, capacity] served by this bucket.
+            int range = Math.max(1, _capacity - _lowerCapacity);
+            int slot = (int)((long)Math.max(0, size - _lowerCapacity - 1) * HISTOGRAM_SLOTS / range);
+            _histogram[Math.min(slot, HISTOGRAM_SLOTS - 1)].increment();
+        }
+
+        void recordHit()
+        {
+            _hits.increment();
+            recordInUse();
+        }
+
+        void recordMiss()
+        {
+            _misses.increment();
+            recordInUse();
+        }
+
+        void recordOverflow()
+        {
+            _overflows.increment();
+        }
+
+        private void recordInUse()
+        {
+            int inUse = _inUse.incrementAndGet();
+            _peakInUse.accumulateAndGet(inUse, Math::max);
+        }
+
+        void recordRelease()
+        {
+            _inUse.updateAndGet(c -> c > 0 ? c - 1 : 0);
+        }
+
+        int resetPeakInUse()
+        {
+            return _peakInUse.getAndSet(_inUse.get());
+        }
+
+        long getHitCount()
+        {
+            return _hits.sum();
+        }
+
+        long getMissCount()
+        {
+            return _misses.sum();
+        }
+
+        long getOverflowCount()
+        {
+            return _overflows.sum();
+        }
+
+        void resetStatistics()
+        {
+            for (LongAdder slot : _histogram)
+            {
+                slot.reset();
+            }
+            _hits.reset();
+            _misses.reset();
+            _overflows.reset();
+        }
+
+        Collection<RetainedBucket.Entry> values()
+        {
+            if (_stripes.length == 1)
+                return _stripes[0].values();
+            List<RetainedBucket.Entry> values = new ArrayList<>();
+            for (RetainedBucket stripe : _stripes)
+            {
+                values.addAll(stripe.values());
+            }
+            return values;
+        }
+
+        private String statistics()
+        {
+            StringBuilder builder = new StringBuilder();
+            builder.append("hits=").append(getHitCount())
+                .append(",misses=").append(getMissCount())
+                .append(",overflows=").append(getOverflowCount())
+                .append(",peak=").append(_peakInUse.get())
+                .append(",sizes(").append(_lowerCapacity).append("-").append(_capacity).append("]=[");
+            for (int i = 0; i < _histogram.length; i++)
+            {
+                if (i > 0)
+                    builder.append(",");
+                builder.append(_histogram[i].sum());
+            }
+            return builder.append("]").toString();
+        }
+
+        @Override
+        public void dump(Appendable out, String indent) throws IOException
+        {
+            if (_stripes.length == 1 && getHitCount() + getMissCount() + getOverflowCount() == 0)
+                _stripes[0].dump(out, indent);
+            else
+                Dumpable.dumpObjects(out, indent, this, (Object[])_stripes);
+        }
+
+        @Override
+        public String toString()
+        {
+            boolean recorded = getHitCount() + getMissCount() + getOverflowCount() > 0;
+            if (_stripes.length == 1 && !recorded)
+                return _stripes[0].toString();
+            int entries = 0;
+            int inUse = 0;
+            for (RetainedBucket.Entry entry : values())
+            {
+                entries++;
+                if (entry.isInUse())
+                    inUse++;
+            }
+
+            return String.format("%s@%x{capacity=%d,stripes=%d,inuse=%d(%d%%)%s}",
+                getClass().getSimpleName(),
+                hashCode(),
+                _capacity,
+                _stripes.length,
+                inUse,
+                entries > 0 ? (inUse * 100) / entries : 0,
+                recorded ? "," + statistics() : "");
+        }
+    }
+
     private static class RetainedBucket extends Pool<RetainableByteBuffer>
     {
         private final int _capacity;
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadPendingException;
 import java.nio.channels.WritePendingException;
 
@@ -282,6 +283,35 @@ public interface EndPoint extends Closeable
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * @return whether this EndPoint supports {@link #transferFrom(Callback, FileChannel, long, long)}
+     */
+    default boolean isFileTransferSupported()
+    {
+        return false;
+    }
+
+    /**
+     * <p>Writes the given region of a file directly to the underlying channel, possibly without
+     * copying the file bytes to user space, and invokes callback methods when either the whole
+     * region has been written or an error occurs.</p>
+     * <p>This is a write operation like {@link #write(Callback, ByteBuffer...)}: it must not be
+     * concurrent with other write operations.
+     * The bytes are written as they are, so this method must only be used by connections that
+     * do not need to frame, encode or encrypt the data.</p>
+     *
+     * @param callback the callback to call when an error occurs or the transfer completed
+     * @param file the file to transfer from
+     * @param position the position in the file of the first byte to transfer
+     * @param count the number of bytes to transfer
+     * @throws WritePendingException if another write operation is concurrent.
+     * @see #isFileTransferSupported()
+     */
+    default void transferFrom(Callback callback, FileChannel file, long position, long count) throws WritePendingException
+    {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * @return the {@link Connection} associated with this EndPoint
      * @see #setConnection(Connection)
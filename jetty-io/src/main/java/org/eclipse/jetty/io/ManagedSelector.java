@@ -88,6 +88,7 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
     private Deque<SelectorUpdate> _updates = new ArrayDeque<>();
     private Deque<SelectorUpdate> _updateable = new ArrayDeque<>();
     private final SampleStatistic _keyStats = new SampleStatistic();
+    private volatile double _recentSelectedKeys;
 
     public ManagedSelector(SelectorManager selectorManager, int id)
     {
@@ -163,6 +164,20 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
         return _keyStats.getMax();
     }
 
+    /**
+     * <p>Returns the exponentially weighted moving average of the number
+     * of selected keys per {@code select()} call, which gives more weight
+     * to the recent calls and therefore tracks the recent I/O activity
+     * of this selector.</p>
+     *
+     * @return the moving average of the number of selected keys
+     */
+    @ManagedAttribute(value = "Moving average of the number of recently selected keys", readonly = true)
+    public double getRecentSelectedKeys()
+    {
+        return _recentSelectedKeys;
+    }
+
     @ManagedAttribute(value = "Total number of select() calls", readonly = true)
     public long getSelectCount()
     {
@@ -173,6 +188,7 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
     public void resetStats()
     {
         _keyStats.reset();
+        _recentSelectedKeys = 0;
     }
 
     protected int nioSelect(Selector selector, boolean now) throws IOException
@@ -483,11 +499,12 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
     public String toString()
     {
         Selector selector = _selector;
-        return String.format("%s id=%s keys=%d selected=%d updates=%d",
+        return String.format("%s id=%s keys=%d selected=%d recent=%.2f updates=%d",
             super.toString(),
             _id,
             selector != null && selector.isOpen() ? selector.keys().size() : -1,
             selector != null && selector.isOpen() ? selector.selectedKeys().size() : -1,
+            _recentSelectedKeys,
             getActionSize());
     }
 
@@ -621,6 +638,9 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
                         int selectedKeys = _keys.size();
                         if (selectedKeys > 0)
                             _keyStats.record(selectedKeys);
+                        // Only the producing thread writes the moving average.
+                        double recent = _recentSelectedKeys;
+                        _recentSelectedKeys = recent + (selectedKeys - recent) / 8;
                         _cursor = selectedKeys > 0 ? _keys.iterator() : Collections.emptyIterator();
                         if (LOG.isDebugEnabled())
                             LOG.debug("Selector {} processing {} keys, {} updates", selector, selectedKeys, updates);
@@ -807,13 +827,18 @@ public class ManagedSelector extends ContainerLifeCycle implements Dumpable
             SelectableChannel channel = null;
             try
             {
-                while (true)
+                int batchSize = _selectorManager.getAcceptBatchSize();
+                int accepted = 0;
+                while (batchSize < 0 || accepted < batchSize)
                 {
                     channel = _selectorManager.doAccept(_channel);
                     if (channel == null)
                         break;
+                    ++accepted;
                     _selectorManager.accepted(channel);
                 }
+                if (LOG.isDebugEnabled())
+                    LOG.debug("{} accepted {}/{} channels", this, accepted, batchSize);
             }
             catch (Throwable x)
             {
@@ -46,6 +46,13 @@ public class NetworkTrafficSocketChannelEndPoint extends SocketChannelEndPoint
         return read;
     }
 
+    @Override
+    public boolean isFileTransferSupported()
+    {
+        // Transferred file bytes would not be notified to the listeners.
+        return false;
+    }
+
     @Override
     public boolean flush(ByteBuffer... buffers) throws IOException
     {
@@ -0,0 +1,105 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.io;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A strategy to choose the {@link ManagedSelector} a channel is registered with.</p>
+ *
+ * @see SelectorManager#setSelectorChooser(SelectorChooser)
+ */
+@FunctionalInterface
+public interface SelectorChooser
+{
+    /**
+     * <p>Chooses one of the given selectors.</p>
+     * <p>The array must not be modified, and its elements may be {@code null}
+     * when the {@link SelectorManager} is not started.</p>
+     *
+     * @param selectors the selectors to choose from
+     * @return the chosen selector, or {@code null} if no selector is available
+     */
+    ManagedSelector choose(ManagedSelector[] selectors);
+
+    /**
+     * <p>Chooses the selectors in turn.</p>
+     */
+    class RoundRobin implements SelectorChooser
+    {
+        private final AtomicInteger _index = new AtomicInteger();
+
+        @Override
+        public ManagedSelector choose(ManagedSelector[] selectors)
+        {
+            return selectors[_index.updateAndGet(index -> (index + 1) % selectors.length)];
+        }
+
+        @Override
+        public String toString()
+        {
+            return getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * <p>Chooses the selector with the least registered keys, and among those
+     * the one with the least recently selected keys.</p>
+     * <p>Long-lived connections, such as WebSocket or HTTP/2 connections, may
+     * accumulate on few selectors when they are chosen in turn, while other
+     * selectors are left with few connections; this strategy evens out the
+     * number of connections per selector.</p>
+     * <p>The search starts from a rotating index, so that ties are chosen in turn,
+     * in particular during bursts of connections, when channels are chosen faster
+     * than they are registered.</p>
+     *
+     * @see ManagedSelector#getTotalKeys()
+     * @see ManagedSelector#getRecentSelectedKeys()
+     */
+    class LeastLoaded implements SelectorChooser
+    {
+        private final AtomicInteger _index = new AtomicInteger();
+
+        @Override
+        public ManagedSelector choose(ManagedSelector[] selectors)
+        {
+            int length = selectors.length;
+            int start = _index.updateAndGet(index -> (index + 1) % length);
+            ManagedSelector chosen = null;
+            int chosenKeys = Integer.MAX_VALUE;
+            double chosenSelected = Double.MAX_VALUE;
+            for (int i = 0; i < length; ++i)
+            {
+                ManagedSelector selector = selectors[(start + i) % length];
+                if (selector == null)
+                    continue;
+                int keys = selector.size();
+                double selected = selector.getRecentSelectedKeys();
+                if (keys < chosenKeys || keys == chosenKeys && selected < chosenSelected)
+                {
+                    chosen = selector;
+                    chosenKeys = keys;
+                    chosenSelected = selected;
+                }
+            }
+            return chosen;
+        }
+
+        @Override
+        public String toString()
+        {
+            return getClass().getSimpleName();
+        }
+    }
+}
@@ -25,10 +25,9 @@ import java.nio.channels.SocketChannel;
 import java.util.Arrays;
 import java.util.EventListener;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.IntUnaryOperator;
 
 import org.eclipse.jetty.util.ProcessorUtils;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
@@ -58,10 +57,10 @@ public abstract class SelectorManager extends ContainerLifeCycle implements Dump
     private final Executor executor;
     private final Scheduler scheduler;
     private final ManagedSelector[] _selectors;
-    private final AtomicInteger _selectorIndex = new AtomicInteger();
-    private final IntUnaryOperator _selectorIndexUpdate;
+    private volatile SelectorChooser _selectorChooser = new SelectorChooser.RoundRobin();
     private final List<AcceptListener> _acceptListeners = new CopyOnWriteArrayList<>();
     private long _connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int _acceptBatchSize = -1;
     private ThreadPoolBudget.Lease _lease;
 
     private static int defaultSelectors(Executor executor)
@@ -93,7 +92,7 @@ public abstract class SelectorManager extends ContainerLifeCycle implements Dump
         this.executor = executor;
         this.scheduler = scheduler;
         _selectors = new ManagedSelector[selectors];
-        _selectorIndexUpdate = index -> (index + 1) % _selectors.length;
+        addBean(_selectorChooser);
     }
 
     @ManagedAttribute("The Executor")
@@ -129,6 +128,31 @@ public abstract class SelectorManager extends ContainerLifeCycle implements Dump
         _connectTimeout = milliseconds;
     }
 
+    /**
+     * @return the max number of channels accepted each time a server channel
+     * registered via {@link #acceptor(SelectableChannel)} is selected
+     */
+    @ManagedAttribute("The max number of channels accepted per selection of a server channel, or -1 for no limit")
+    public int getAcceptBatchSize()
+    {
+        return _acceptBatchSize;
+    }
+
+    /**
+     * <p>Sets the max number of channels accepted each time a server channel registered
+     * via {@link #acceptor(SelectableChannel)} is selected.</p>
+     * <p>During connection storms, draining the whole accept backlog at once monopolizes
+     * the selector thread; accepting in batches lets the selector process the other
+     * selected keys between batches, since the server channel is selected again while
+     * its accept backlog is not empty.</p>
+     *
+     * @param acceptBatchSize the max number of channels accepted per selection, or -1 for no limit
+     */
+    public void setAcceptBatchSize(int acceptBatchSize)
+    {
+        _acceptBatchSize = acceptBatchSize <= 0 ? -1 : acceptBatchSize;
+    }
+
     /**
      * Executes the given task in a different thread.
      *
@@ -165,9 +189,35 @@ public abstract class SelectorManager extends ContainerLifeCycle implements Dump
         return _selectors.length;
     }
 
+    /**
+     * @return the strategy to choose the selector a channel is registered with
+     */
+    @ManagedAttribute("The strategy to choose the selector a channel is registered with")
+    public SelectorChooser getSelectorChooser()
+    {
+        return _selectorChooser;
+    }
+
+    /**
+     * <p>Sets the strategy to choose the selector a channel is registered with.</p>
+     * <p>By default, selectors are chosen in turn with {@link SelectorChooser.RoundRobin};
+     * servers with many long-lived connections may use {@link SelectorChooser.LeastLoaded}
+     * to even out the number of connections per selector.</p>
+     * <p>The strategy may be changed while this SelectorManager is started,
+     * in which case it applies to the channels registered afterwards.</p>
+     *
+     * @param selectorChooser the strategy to choose the selector a channel is registered with
+     */
+    public void setSelectorChooser(SelectorChooser selectorChooser)
+    {
+        Objects.requireNonNull(selectorChooser);
+        updateBean(_selectorChooser, selectorChooser);
+        _selectorChooser = selectorChooser;
+    }
+
     protected ManagedSelector chooseSelector()
     {
-        return _selectors[_selectorIndex.updateAndGet(_selectorIndexUpdate)];
+        return _selectorChooser.choose(_selectors);
     }
 
     /**
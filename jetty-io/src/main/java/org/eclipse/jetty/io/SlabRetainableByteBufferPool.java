@@ -0,0 +1,483 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.Pool;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
+import org.eclipse.jetty.util.component.Dumpable;
+import org.eclipse.jetty.util.component.DumpableCollection;
+import org.eclipse.jetty.util.thread.AutoLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A {@link RetainableByteBufferPool} that carves its buffers out of a few large pre-allocated slabs.</p>
+ * <p>Rather than allocating each pooled buffer separately, this pool allocates slabs of {@code slabSize}
+ * bytes and hands out slices of them, each slice being held in a bucket {@link Pool} of buffers of the
+ * same capacity, bucket capacities being multiples of {@code factor} like for {@link ArrayRetainableByteBufferPool}.
+ * Once carved, a slice is never returned to its slab but always re-pooled in its bucket, so the slabs
+ * are never fragmented and are only zero-filled once, when they are allocated.</p>
+ * <p>The memory retained by this pool is exactly the number of slabs times {@code slabSize}; once
+ * {@code maxHeapMemory} or {@code maxDirectMemory} is reached no more slabs are allocated and buffers
+ * that cannot be served from the buckets are allocated on the fly and not pooled.
+ * After a {@link #clear()}, the slabs that still have buffers in use keep being accounted until
+ * all those buffers are released.</p>
+ * <p>Direct slabs can optionally be memory-mapped from temporary files created in a given directory,
+ * for example a {@code hugetlbfs} mount point, rather than being allocated with
+ * {@link ByteBuffer#allocateDirect(int)}.</p>
+ */
+@ManagedObject
+public class SlabRetainableByteBufferPool implements RetainableByteBufferPool, Dumpable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(SlabRetainableByteBufferPool.class);
+    public static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+
+    private final int _factor;
+    private final int _maxCapacity;
+    private final int _slabSize;
+    private final Path _mappedDirectory;
+    private final Slabs _direct;
+    private final Slabs _indirect;
+
+    /**
+     * Creates a new SlabRetainableByteBufferPool with a default configuration.
+     */
+    public SlabRetainableByteBufferPool()
+    {
+        this(-1, -1, Integer.MAX_VALUE, -1, 0L, 0L, null);
+    }
+
+    /**
+     * Creates a new SlabRetainableByteBufferPool with the given configuration.
+     *
+     * @param factor the capacity factor
+     * @param maxCapacity the maximum ByteBuffer capacity
+     * @param maxBucketSize the maximum number of ByteBuffers for each bucket
+     * @param slabSize the size in bytes of each slab, or -1 to use {@link #DEFAULT_SLAB_SIZE}
+     * @param maxHeapMemory the max heap memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param maxDirectMemory the max direct memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     */
+    public SlabRetainableByteBufferPool(int factor, int maxCapacity, int maxBucketSize, int slabSize, long maxHeapMemory, long maxDirectMemory)
+    {
+        this(factor, maxCapacity, maxBucketSize, slabSize, maxHeapMemory, maxDirectMemory, null);
+    }
+
+    /**
+     * Creates a new SlabRetainableByteBufferPool with the given configuration.
+     *
+     * @param factor the capacity factor
+     * @param maxCapacity the maximum ByteBuffer capacity
+     * @param maxBucketSize the maximum number of ByteBuffers for each bucket
+     * @param slabSize the size in bytes of each slab, or -1 to use {@link #DEFAULT_SLAB_SIZE}
+     * @param maxHeapMemory the max heap memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param maxDirectMemory the max direct memory in bytes, -1 for unlimited memory or 0 to use default heuristic
+     * @param mappedDirectory the directory where to create the files memory-mapped as direct slabs,
+     * or null to allocate direct slabs with {@link ByteBuffer#allocateDirect(int)}
+     */
+    public SlabRetainableByteBufferPool(int factor, int maxCapacity, int maxBucketSize, int slabSize, long maxHeapMemory, long maxDirectMemory, Path mappedDirectory)
+    {
+        factor = factor <= 0 ? AbstractByteBufferPool.DEFAULT_FACTOR : factor;
+        if (maxCapacity <= 0)
+            maxCapacity = AbstractByteBufferPool.DEFAULT_MAX_CAPACITY_BY_FACTOR * factor;
+        if ((maxCapacity % factor) != 0 || factor >= maxCapacity)
+            throw new IllegalArgumentException(String.format("The capacity factor(%d) must be a divisor of maxCapacity(%d)", factor, maxCapacity));
+        if (slabSize <= 0)
+            slabSize = DEFAULT_SLAB_SIZE;
+        if (slabSize < maxCapacity)
+            throw new IllegalArgumentException(String.format("The slab size(%d) must not be less than maxCapacity(%d)", slabSize, maxCapacity));
+        if (mappedDirectory != null && !Files.isDirectory(mappedDirectory))
+            throw new IllegalArgumentException("Not a directory: " + mappedDirectory);
+
+        _factor = factor;
+        _maxCapacity = maxCapacity;
+        _slabSize = slabSize;
+        _mappedDirectory = mappedDirectory;
+        _direct = new Slabs(true, maxBucketSize, AbstractByteBufferPool.memorySize(maxDirectMemory));
+        _indirect = new Slabs(false, maxBucketSize, AbstractByteBufferPool.memorySize(maxHeapMemory));
+    }
+
+    @ManagedAttribute("The capacity factor")
+    public int getFactor()
+    {
+        return _factor;
+    }
+
+    @ManagedAttribute("The maximum pooled buffer capacity")
+    public int getMaxCapacity()
+    {
+        return _maxCapacity;
+    }
+
+    @ManagedAttribute("The size in bytes of each slab")
+    public int getSlabSize()
+    {
+        return _slabSize;
+    }
+
+    @ManagedAttribute("The directory of the memory-mapped direct slabs")
+    public String getMappedDirectory()
+    {
+        return _mappedDirectory == null ? null : _mappedDirectory.toString();
+    }
+
+    @Override
+    public RetainableByteBuffer acquire(int size, boolean direct)
+    {
+        Slabs slabs = direct ? _direct : _indirect;
+        RetainableByteBuffer buffer = slabs.acquire(size);
+        if (buffer == null)
+            buffer = newRetainableByteBuffer(size, direct);
+        return buffer;
+    }
+
+    private RetainableByteBuffer newRetainableByteBuffer(int capacity, boolean direct)
+    {
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        BufferUtil.clear(buffer);
+        RetainableByteBuffer retainableByteBuffer = new RetainableByteBuffer(buffer, b -> {});
+        retainableByteBuffer.acquire();
+        return retainableByteBuffer;
+    }
+
+    /**
+     * <p>Allocates a new slab.</p>
+     * <p>Direct slabs are memory-mapped if a mapped directory has been configured.</p>
+     *
+     * @param capacity the slab capacity
+     * @param direct whether the slab must be direct or heap
+     * @return a new slab
+     */
+    protected ByteBuffer newSlab(int capacity, boolean direct)
+    {
+        if (!direct)
+            return ByteBuffer.allocate(capacity);
+        if (_mappedDirectory == null)
+            return ByteBuffer.allocateDirect(capacity);
+        try
+        {
+            Path file = Files.createTempFile(_mappedDirectory, "jetty-slab-", ".bin");
+            // The mapping remains valid after the channel is closed and the file deleted.
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE))
+            {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            }
+        }
+        catch (IOException x)
+        {
+            throw new UncheckedIOException(x);
+        }
+    }
+
+    @ManagedAttribute("The number of direct slabs")
+    public int getDirectSlabCount()
+    {
+        return _direct.getSlabCount();
+    }
+
+    @ManagedAttribute("The number of heap slabs")
+    public int getHeapSlabCount()
+    {
+        return _indirect.getSlabCount();
+    }
+
+    @ManagedAttribute("The bytes retained by direct slabs")
+    public long getDirectMemory()
+    {
+        return _direct.getMemory();
+    }
+
+    @ManagedAttribute("The bytes retained by heap slabs")
+    public long getHeapMemory()
+    {
+        return _indirect.getMemory();
+    }
+
+    @ManagedAttribute("The bytes of direct slabs not yet carved into buffers")
+    public long getUncarvedDirectMemory()
+    {
+        return _direct.getUncarvedMemory();
+    }
+
+    @ManagedAttribute("The bytes of heap slabs not yet carved into buffers")
+    public long getUncarvedHeapMemory()
+    {
+        return _indirect.getUncarvedMemory();
+    }
+
+    @ManagedAttribute("The number of pooled direct ByteBuffers")
+    public long getDirectByteBufferCount()
+    {
+        return _direct.getByteBufferCount(false);
+    }
+
+    @ManagedAttribute("The number of pooled heap ByteBuffers")
+    public long getHeapByteBufferCount()
+    {
+        return _indirect.getByteBufferCount(false);
+    }
+
+    @ManagedAttribute("The number of pooled direct ByteBuffers that are available")
+    public long getAvailableDirectByteBufferCount()
+    {
+        return _direct.getByteBufferCount(true);
+    }
+
+    @ManagedAttribute("The number of pooled heap ByteBuffers that are available")
+    public long getAvailableHeapByteBufferCount()
+    {
+        return _indirect.getByteBufferCount(true);
+    }
+
+    @Override
+    @ManagedOperation(value = "Clears this RetainableByteBufferPool", impact = "ACTION")
+    public void clear()
+    {
+        _direct.clear();
+        _indirect.clear();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{factor=%d,max=%d,slab=%d,heap=%d/%d,direct=%d/%d}",
+            getClass().getSimpleName(),
+            hashCode(),
+            _factor,
+            _maxCapacity,
+            _slabSize,
+            _indirect.getMemory(), _indirect._maxMemory,
+            _direct.getMemory(), _direct._maxMemory);
+    }
+
+    @Override
+    public void dump(Appendable out, String indent) throws IOException
+    {
+        Dumpable.dumpObjects(
+            out,
+            indent,
+            this,
+            DumpableCollection.fromArray("direct", _direct._buckets),
+            DumpableCollection.fromArray("indirect", _indirect._buckets));
+    }
+
+    /**
+     * <p>The slabs and the buckets of either direct or heap buffers.</p>
+     */
+    private class Slabs
+    {
+        private final AutoLock _lock = new AutoLock();
+        private final List<Slab> _slabs = new ArrayList<>();
+        private final List<Slab> _cleared = new ArrayList<>();
+        private final boolean _direct;
+        private final long _maxMemory;
+        private final SlabBucket[] _buckets;
+        private Slab _slab;
+
+        private Slabs(boolean direct, int maxBucketSize, long maxMemory)
+        {
+            _direct = direct;
+            _maxMemory = maxMemory;
+            _buckets = new SlabBucket[_maxCapacity / _factor];
+            for (int i = 0; i < _buckets.length; i++)
+            {
+                _buckets[i] = new SlabBucket((i + 1) * _factor, maxBucketSize);
+            }
+        }
+
+        private RetainableByteBuffer acquire(int size)
+        {
+            if (size > _maxCapacity)
+                return null;
+            SlabBucket bucket = _buckets[size <= 0 ? 0 : (size - 1) / _factor];
+
+            Pool<RetainableByteBuffer>.Entry entry = bucket.acquire();
+            if (entry != null)
+            {
+                SlabBuffer buffer = (SlabBuffer)entry.getPooled();
+                buffer.acquire();
+                buffer._slab._inUse.incrementAndGet();
+                return buffer;
+            }
+
+            Pool<RetainableByteBuffer>.Entry reservedEntry = bucket.reserve();
+            if (reservedEntry == null)
+                return null;
+
+            SlabBuffer buffer = carve(bucket._capacity, reservedEntry);
+            if (buffer == null)
+            {
+                reservedEntry.remove();
+                return null;
+            }
+
+            buffer.acquire();
+            reservedEntry.enable(buffer, true);
+            return buffer;
+        }
+
+        private SlabBuffer carve(int capacity, Pool<RetainableByteBuffer>.Entry entry)
+        {
+            try (AutoLock l = _lock.lock())
+            {
+                if (_slab == null || _slab._buffer.remaining() < capacity)
+                {
+                    if (_maxMemory >= 0 && (long)(_slabs.size() + _cleared.size() + 1) * _slabSize > _maxMemory)
+                    {
+                        if (LOG.isDebugEnabled())
+                            LOG.debug("max {} memory {} reached, cannot allocate slab", _direct ? "direct" : "heap", _maxMemory);
+                        return null;
+                    }
+                    // The remaining bytes of the current slab are wasted.
+                    _slab = new Slab(newSlab(_slabSize, _direct));
+                    _slabs.add(_slab);
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("allocated {} slab #{} of {} bytes", _direct ? "direct" : "heap", _slabs.size(), _slabSize);
+                }
+                Slab slab = _slab;
+                ByteBuffer slabBuffer = slab._buffer;
+                int position = slabBuffer.position();
+                ByteBuffer slice = slabBuffer.duplicate();
+                slice.limit(position + capacity);
+                slice = slice.slice();
+                slabBuffer.position(position + capacity);
+                BufferUtil.clear(slice);
+                slab._inUse.incrementAndGet();
+                return new SlabBuffer(slice, slab, retainedBuffer ->
+                {
+                    BufferUtil.reset(retainedBuffer.getBuffer());
+                    slab._inUse.decrementAndGet();
+                    // The entry cannot be released if it was removed by clear().
+                    if (!entry.release())
+                        discard(slab);
+                });
+            }
+        }
+
+        private void discard(Slab slab)
+        {
+            try (AutoLock l = _lock.lock())
+            {
+                if (slab._inUse.get() == 0 && _cleared.remove(slab) && LOG.isDebugEnabled())
+                    LOG.debug("discarded cleared {} slab of {} bytes", _direct ? "direct" : "heap", _slabSize);
+            }
+        }
+
+        private int getSlabCount()
+        {
+            try (AutoLock l = _lock.lock())
+            {
+                return _slabs.size() + _cleared.size();
+            }
+        }
+
+        private long getMemory()
+        {
+            return (long)getSlabCount() * _slabSize;
+        }
+
+        private long getUncarvedMemory()
+        {
+            try (AutoLock l = _lock.lock())
+            {
+                return _slab == null ? 0 : _slab._buffer.remaining();
+            }
+        }
+
+        private long getByteBufferCount(boolean available)
+        {
+            return Arrays.stream(_buckets)
+                .mapToLong(bucket -> available ? bucket.getIdleCount() : bucket.size())
+                .sum();
+        }
+
+        private void clear()
+        {
+            try (AutoLock l = _lock.lock())
+            {
+                // In-use buffers keep their slab reachable until they are released,
+                // at which point they are discarded since their entry has been removed,
+                // so their slab is accounted until the last of them is released.
+                for (SlabBucket bucket : _buckets)
+                {
+                    bucket.values().forEach(Pool.Entry::remove);
+                }
+                for (Slab slab : _slabs)
+                {
+                    if (slab._inUse.get() > 0)
+                        _cleared.add(slab);
+                }
+                _slabs.clear();
+                _slab = null;
+            }
+        }
+    }
+
+    /**
+     * <p>A slab and the number of its buffers that are in use.</p>
+     */
+    private static class Slab
+    {
+        private final AtomicInteger _inUse = new AtomicInteger();
+        private final ByteBuffer _buffer;
+
+        private Slab(ByteBuffer buffer)
+        {
+            _buffer = buffer;
+        }
+    }
+
+    private static class SlabBuffer extends RetainableByteBuffer
+    {
+        private final Slab _slab;
+
+        private SlabBuffer(ByteBuffer buffer, Slab slab, Consumer<RetainableByteBuffer> releaser)
+        {
+            super(buffer, releaser);
+            _slab = slab;
+        }
+    }
+
+    private static class SlabBucket extends Pool<RetainableByteBuffer>
+    {
+        private final int _capacity;
+
+        private SlabBucket(int capacity, int size)
+        {
+            super(Pool.StrategyType.THREAD_ID, size, true);
+            _capacity = capacity;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s{capacity=%d,inuse=%d}", super.toString(), _capacity, getInUseCount());
+        }
+    }
+}
@@ -16,10 +16,14 @@ package org.eclipse.jetty.io;
 import java.io.IOException;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.nio.channels.WritePendingException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.thread.Scheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +35,8 @@ public class SocketChannelEndPoint extends SelectableChannelEndPoint
 {
     private static final Logger LOG = LoggerFactory.getLogger(SocketChannelEndPoint.class);
 
+    private final AtomicReference<Transfer> _transfer = new AtomicReference<>();
+
     public SocketChannelEndPoint(SocketChannel channel, ManagedSelector selector, SelectionKey key, Scheduler scheduler)
     {
         super(scheduler, channel, selector, key);
@@ -125,6 +131,107 @@ public class SocketChannelEndPoint extends SelectableChannelEndPoint
                 return false;
         }
 
+        Transfer transfer = _transfer.get();
+        if (transfer != null)
+        {
+            if (!transfer.transfer())
+                return false;
+            _transfer.compareAndSet(transfer, null);
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean isFileTransferSupported()
+    {
         return true;
     }
+
+    @Override
+    public void transferFrom(Callback callback, FileChannel file, long position, long count) throws WritePendingException
+    {
+        // The transfer is performed by flush(), so that the WriteFlusher
+        // waits for the channel to be writable when the transfer is incomplete.
+        // It must not be installed while another write is pending, otherwise
+        // the completion of that write would perform it.
+        WriteFlusher flusher = getWriteFlusher();
+        if (!flusher.isIdle() && !flusher.isFailed())
+            throw new WritePendingException();
+        Transfer transfer = new Transfer(file, position, count);
+        if (!_transfer.compareAndSet(null, transfer))
+            throw new WritePendingException();
+        try
+        {
+            write(new Callback.Nested(callback)
+            {
+                @Override
+                public void succeeded()
+                {
+                    // Uninstall the transfer before the callback may write again.
+                    _transfer.compareAndSet(transfer, null);
+                    super.succeeded();
+                }
+
+                @Override
+                public void failed(Throwable x)
+                {
+                    _transfer.compareAndSet(transfer, null);
+                    super.failed(x);
+                }
+            });
+        }
+        catch (WritePendingException x)
+        {
+            _transfer.compareAndSet(transfer, null);
+            throw x;
+        }
+    }
+
+    private class Transfer
+    {
+        private final FileChannel _file;
+        private long _position;
+        private long _remaining;
+
+        private Transfer(FileChannel file, long position, long count)
+        {
+            _file = file;
+            _position = position;
+            _remaining = count;
+        }
+
+        private boolean transfer() throws IOException
+        {
+            while (_remaining > 0)
+            {
+                long transferred;
+                try
+                {
+                    transferred = _file.transferTo(_position, _remaining, getChannel());
+                }
+                catch (IOException x)
+                {
+                    throw new EofException(x);
+                }
+                if (LOG.isDebugEnabled())
+                    LOG.debug("transferred {}/{} {}", transferred, _remaining, SocketChannelEndPoint.this);
+
+                if (transferred <= 0)
+                {
+                    if (_position >= _file.size())
+                        throw new EofException("Unexpected end of file " + _file);
+                    return false;
+                }
+
+                _position += transferred;
+                _remaining -= transferred;
+                notIdle();
+                Connection connection = getConnection();
+                if (connection instanceof WriteFlusher.Listener)
+                    ((WriteFlusher.Listener)connection).onFlushed(transferred);
+            }
+            return true;
+        }
+    }
 }
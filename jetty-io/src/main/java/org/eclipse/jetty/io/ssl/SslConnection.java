@@ -121,6 +121,7 @@ public class SslConnection extends AbstractConnection implements Connection.Upgr
     private int _renegotiationLimit = -1;
     private boolean _closedOutbound;
     private boolean _requireCloseMessage;
+    private int _maxWrapRecords = 1;
     private FlushState _flushState = FlushState.IDLE;
     private FillState _fillState = FillState.IDLE;
     private boolean _underflown;
@@ -278,6 +279,29 @@ public class SslConnection extends AbstractConnection implements Connection.Upgr
         _requireCloseMessage = requireCloseMessage;
     }
 
+    /**
+     * @return the max number of TLS records wrapped into the encrypted output buffer before it is flushed
+     */
+    public int getMaxWrapRecords()
+    {
+        return _maxWrapRecords;
+    }
+
+    /**
+     * <p>Sets the max number of TLS records that are wrapped, from the application buffers
+     * passed to {@link DecryptedEndPoint#flush(ByteBuffer...)}, into the encrypted output buffer
+     * before it is flushed, so that several records are written to the network with a single write.</p>
+     * <p>The encrypted output buffer is acquired from the {@link ByteBufferPool} with a capacity of
+     * {@code maxWrapRecords} times the TLS packet buffer size, which should not exceed the max
+     * capacity of the pool, otherwise the buffer is not pooled.</p>
+     *
+     * @param maxWrapRecords the max number of TLS records wrapped before flushing, default 1
+     */
+    public void setMaxWrapRecords(int maxWrapRecords)
+    {
+        _maxWrapRecords = Math.max(1, maxWrapRecords);
+    }
+
     private boolean isHandshakeInitial()
     {
         return _handshake.get() == HandshakeState.INITIAL;
@@ -324,7 +348,7 @@ public class SslConnection extends AbstractConnection implements Connection.Upgr
     private void acquireEncryptedOutput()
     {
         if (_encryptedOutput == null)
-            _encryptedOutput = _bufferPool.acquire(getPacketBufferSize(), _encryptedDirectBuffers);
+            _encryptedOutput = _bufferPool.acquire(getPacketBufferSize() * _maxWrapRecords, _encryptedDirectBuffers);
     }
 
     @Override
@@ -1090,6 +1114,20 @@ public class SslConnection extends AbstractConnection implements Connection.Upgr
                             try
                             {
                                 wrapResult = wrap(_sslEngine, appOuts, _encryptedOutput);
+                                // Wrap more records while there is room for them,
+                                // so that they are all flushed with a single write.
+                                int records = 1;
+                                while (records < _maxWrapRecords &&
+                                    wrapResult.getStatus() == Status.OK &&
+                                    wrapResult.getHandshakeStatus() == HandshakeStatus.NOT_HANDSHAKING &&
+                                    _encryptedOutput.remaining() >= packetBufferSize &&
+                                    !BufferUtil.isEmpty(appOuts))
+                                {
+                                    wrapResult = wrap(_sslEngine, appOuts, _encryptedOutput);
+                                    ++records;
+                                }
+                                if (LOG.isDebugEnabled())
+                                    LOG.debug("wrapped {} record(s)", records);
                             }
                             finally
                             {
@@ -18,6 +18,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -420,4 +421,188 @@ public class ArrayRetainableByteBufferPoolTest
         assertThat(retain9, not(sameInstance(retain5)));
         retain9.release();
     }
+
+    @Test
+    public void testStripedMaxBucketSize()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, 3, 0, 0, 2);
+        assertThat(pool.getStripes(), is(2));
+
+        List<RetainableByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            buffers.add(pool.acquire(10, true));
+        }
+
+        // Only maxBucketSize buffers are pooled across all the stripes.
+        assertThat(pool.getDirectByteBufferCount(), is(3L));
+        assertThat(pool.getDirectMemory(), is(30L));
+
+        buffers.forEach(RetainableByteBuffer::release);
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(3L));
+    }
+
+    @Test
+    public void testStripedMoreStripesThanBucketSize()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, 2, 0, 0, 8);
+        assertThat(pool.getStripes(), is(2));
+    }
+
+    @Test
+    public void testStripedSpillsToOtherStripes() throws Exception
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, 8, 0, 0, 2);
+
+        // Pool buffers from a thread that maps to the other stripe, as stripes are selected by thread id.
+        long stripe = Thread.currentThread().getId() % 2;
+        Thread thread;
+        do
+        {
+            thread = new Thread(() ->
+            {
+                List<RetainableByteBuffer> buffers = new ArrayList<>();
+                for (int i = 0; i < 2; i++)
+                {
+                    buffers.add(pool.acquire(10, true));
+                }
+                buffers.forEach(RetainableByteBuffer::release);
+            });
+        }
+        while (thread.getId() % 2 == stripe);
+        thread.start();
+        thread.join(5000);
+        assertThat(pool.getDirectByteBufferCount(), is(2L));
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(2L));
+        // The stripe of this thread holds none of them.
+        assertThat(pool.poolFor(10, true).size(), is(0));
+
+        // This thread must find the idle buffers in the other stripe.
+        List<RetainableByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 2; i++)
+        {
+            buffers.add(pool.acquire(10, true));
+        }
+        assertThat(pool.getDirectByteBufferCount(), is(2L));
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(0L));
+        assertThat(pool.poolFor(10, true).size(), is(0));
+
+        buffers.forEach(RetainableByteBuffer::release);
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(2L));
+    }
+
+    @Test
+    public void testStripedClear()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, Integer.MAX_VALUE, 0, 0, 0);
+
+        pool.acquire(10, true).release();
+        pool.acquire(20, false).release();
+        assertThat(pool.getDirectMemory(), is(10L));
+        assertThat(pool.getHeapMemory(), is(20L));
+        assertThat(pool.dump(), containsString("stripes=" + pool.getStripes()));
+
+        pool.clear();
+
+        assertThat(pool.getDirectByteBufferCount(), is(0L));
+        assertThat(pool.getHeapByteBufferCount(), is(0L));
+        assertThat(pool.getDirectMemory(), is(0L));
+        assertThat(pool.getHeapMemory(), is(0L));
+    }
+
+    @Test
+    public void testStatistics()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(10, 10, 20, 1);
+        pool.setStatisticsEnabled(true);
+
+        RetainableByteBuffer buf1 = pool.acquire(10, true); // miss
+        RetainableByteBuffer buf2 = pool.acquire(10, true); // overflow, bucket is full
+        buf1.release();
+        buf2.release();
+        pool.acquire(10, true).release(); // hit
+        pool.acquire(1, true).release(); // unpooled, < minCapacity
+        pool.acquire(30, true).release(); // unpooled, > maxCapacity
+
+        assertThat(pool.getHitCount(), is(1L));
+        assertThat(pool.getMissCount(), is(1L));
+        assertThat(pool.getOverflowCount(), is(1L));
+        assertThat(pool.getUnpooledCount(), is(2L));
+        assertThat(pool.dump(), containsString("hits=1,misses=1,overflows=1"));
+
+        pool.resetStatistics();
+        assertThat(pool.getHitCount(), is(0L));
+        assertThat(pool.getMissCount(), is(0L));
+        assertThat(pool.getOverflowCount(), is(0L));
+        assertThat(pool.getUnpooledCount(), is(0L));
+    }
+
+    @Test
+    public void testStatisticsHistogram()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 80, 160, Integer.MAX_VALUE);
+        pool.setStatisticsEnabled(true);
+
+        // Second bucket serves sizes (80-160], each histogram slot covers 10 bytes.
+        pool.acquire(81, false).release();
+        pool.acquire(90, false).release();
+        pool.acquire(160, false).release();
+
+        assertThat(pool.dump(), containsString("sizes(80-160]=[2,0,0,0,0,0,0,1]"));
+    }
+
+    @Test
+    public void testSweepEvictsIdleBuffersOverDemand()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, Integer.MAX_VALUE);
+        pool.setSweepPeriod(TimeUnit.DAYS.toMillis(1));
+
+        List<RetainableByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            buffers.add(pool.acquire(10, true));
+        }
+        buffers.forEach(RetainableByteBuffer::release);
+        pool.acquire(20, true).release();
+        assertThat(pool.getDirectByteBufferCount(), is(5L));
+        assertThat(pool.getDirectMemory(), is(60L));
+
+        // The peak demand was 4 and 1 buffers, nothing to evict.
+        pool.sweep();
+        assertThat(pool.getDirectByteBufferCount(), is(5L));
+
+        // The demand drops to 2 buffers in the first bucket, and none in the second.
+        RetainableByteBuffer buf1 = pool.acquire(10, true);
+        RetainableByteBuffer buf2 = pool.acquire(10, true);
+        buf1.release();
+        buf2.release();
+        pool.sweep();
+        assertThat(pool.getDirectByteBufferCount(), is(2L));
+        assertThat(pool.getDirectMemory(), is(20L));
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(2L));
+
+        // No demand at all, every bucket is cold.
+        pool.sweep();
+        assertThat(pool.getDirectByteBufferCount(), is(0L));
+        assertThat(pool.getDirectMemory(), is(0L));
+    }
+
+    @Test
+    public void testSweepDoesNotEvictInUseBuffers()
+    {
+        ArrayRetainableByteBufferPool pool = new ArrayRetainableByteBufferPool(0, 10, 20, Integer.MAX_VALUE);
+        pool.setSweepPeriod(TimeUnit.DAYS.toMillis(1));
+
+        RetainableByteBuffer buffer = pool.acquire(10, true);
+        pool.sweep();
+        pool.sweep();
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+
+        // The buffer was in use during the last period.
+        buffer.release();
+        pool.sweep();
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+        pool.sweep();
+        assertThat(pool.getDirectByteBufferCount(), is(0L));
+    }
 }
@@ -20,16 +20,27 @@ import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.IO;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.util.thread.TimerScheduler;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -152,4 +163,94 @@ public class SelectorManagerTest
             selectorManager.stop();
         }
     }
+
+    @Test
+    public void testLeastLoadedSelectorChooser() throws Exception
+    {
+        int selectors = 4;
+        BlockingQueue<EndPoint> endPoints = new LinkedBlockingQueue<>();
+        Map<EndPoint, ManagedSelector> endPointSelectors = new ConcurrentHashMap<>();
+        SelectorManager selectorManager = new SelectorManager(executor, scheduler, selectors)
+        {
+            @Override
+            protected EndPoint newEndPoint(SelectableChannel channel, ManagedSelector selector, SelectionKey key)
+            {
+                EndPoint endPoint = new SocketChannelEndPoint((SocketChannel)channel, selector, key, getScheduler());
+                endPointSelectors.put(endPoint, selector);
+                return endPoint;
+            }
+
+            @Override
+            public Connection newConnection(SelectableChannel channel, EndPoint endpoint, Object attachment)
+            {
+                return new AbstractConnection(endpoint, executor)
+                {
+                    @Override
+                    public void onFillable()
+                    {
+                    }
+                };
+            }
+
+            @Override
+            protected void endPointOpened(EndPoint endpoint)
+            {
+                endPoints.offer(endpoint);
+            }
+        };
+        selectorManager.setSelectorChooser(new SelectorChooser.LeastLoaded());
+        assertThat(selectorManager.getSelectorChooser().choose(new ManagedSelector[selectors]), nullValue());
+        selectorManager.start();
+
+        List<SocketChannel> clients = new ArrayList<>();
+        try (ServerSocketChannel server = ServerSocketChannel.open())
+        {
+            server.bind(new InetSocketAddress("localhost", 0));
+
+            // Register the channels one at a time, so that the load is up to date.
+            List<EndPoint> opened = new ArrayList<>();
+            for (int i = 0; i < 2 * selectors; ++i)
+            {
+                opened.add(accept(selectorManager, server, clients, endPoints));
+            }
+
+            selectorManager.getBeans(ManagedSelector.class).forEach(selector ->
+                assertThat(selector.toString(), selector.size(), is(2)));
+            assertThat(selectorManager.getTotalKeys(), is(2 * selectors));
+
+            // Close the endpoints of one selector, so
+            // that it is chosen for the next channels.
+            ManagedSelector selector = endPointSelectors.get(opened.get(0));
+            opened.stream()
+                .filter(endPoint -> endPointSelectors.get(endPoint) == selector)
+                .forEach(EndPoint::close);
+            long start = System.nanoTime();
+            while (selector.size() > 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5))
+            {
+                Thread.sleep(10);
+            }
+            assertThat(selector.size(), is(0));
+
+            for (int i = 0; i < 2; ++i)
+            {
+                assertThat(endPointSelectors.get(accept(selectorManager, server, clients, endPoints)), is(selector));
+            }
+        }
+        finally
+        {
+            clients.forEach(IO::close);
+            selectorManager.stop();
+        }
+    }
+
+    private EndPoint accept(SelectorManager selectorManager, ServerSocketChannel server, List<SocketChannel> clients, BlockingQueue<EndPoint> endPoints) throws Exception
+    {
+        clients.add(SocketChannel.open(server.getLocalAddress()));
+        SocketChannel channel = server.accept();
+        channel.configureBlocking(false);
+        selectorManager.accept(channel);
+        EndPoint endPoint = endPoints.poll(5, TimeUnit.SECONDS);
+        assertThat(endPoint, notNullValue());
+        return endPoint;
+    }
 }
@@ -0,0 +1,214 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDir;
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDirExtension;
+import org.eclipse.jetty.util.BufferUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(WorkDirExtension.class)
+public class SlabRetainableByteBufferPoolTest
+{
+    public WorkDir workDir;
+
+    @Test
+    public void testBuffersAreCarvedFromSlab()
+    {
+        SlabRetainableByteBufferPool pool = new SlabRetainableByteBufferPool(10, 20, Integer.MAX_VALUE, 100, -1, -1);
+
+        RetainableByteBuffer buf1 = pool.acquire(5, true);
+        RetainableByteBuffer buf2 = pool.acquire(15, true);
+        assertThat(buf1.capacity(), is(10));
+        assertThat(buf2.capacity(), is(20));
+        assertThat(buf1.getBuffer().position(), is(0));
+        assertThat(buf1.getBuffer().limit(), is(0));
+
+        assertThat(pool.getDirectSlabCount(), is(1));
+        assertThat(pool.getDirectMemory(), is(100L));
+        assertThat(pool.getUncarvedDirectMemory(), is(70L));
+        assertThat(pool.getDirectByteBufferCount(), is(2L));
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(0L));
+
+        // Slices of the same slab do not overlap.
+        BufferUtil.append(buf1.getBuffer(), "0123456789".getBytes(StandardCharsets.US_ASCII), 0, 10);
+        BufferUtil.append(buf2.getBuffer(), "abcdefghijklmnopqrst".getBytes(StandardCharsets.US_ASCII), 0, 20);
+        assertThat(BufferUtil.toString(buf1.getBuffer()), is("0123456789"));
+        assertThat(BufferUtil.toString(buf2.getBuffer()), is("abcdefghijklmnopqrst"));
+
+        buf1.release();
+        buf2.release();
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(2L));
+        assertThat(buf1.getBuffer().remaining(), is(0));
+    }
+
+    @Test
+    public void testReleasedBufferIsReused()
+    {
+        SlabRetainableByteBufferPool pool = new SlabRetainableByteBufferPool(10, 20, Integer.MAX_VALUE, 100, -1, -1);
+
+        RetainableByteBuffer buf1 = pool.acquire(10, false);
+        buf1.release();
+        RetainableByteBuffer buf2 = pool.acquire(10, false);
+        assertThat(buf2, sameInstance(buf1));
+        assertThat(pool.getHeapSlabCount(), is(1));
+        assertThat(pool.getUncarvedHeapMemory(), is(90L));
+        buf2.release();
+        assertThrows(IllegalStateException.class, buf2::release);
+    }
+
+    @Test
+    public void testNewSlabWhenFull()
+    {
+        SlabRetainableByteBufferPool pool = new SlabRetainableByteBufferPool(10, 20, Integer.MAX_VALUE, 30, -1, -1);
+
+        List<RetainableByteBuffer> buffers = new ArrayList<>();
+        buffers.add(pool.acquire(20, true));
+        buffers.add(pool.acquire(20, true));
+        assertThat(pool.getDirectSlabCount(), is(2));
+        assertThat(pool.getDirectMemory(), is(60L));
+        assertThat(pool.getUncarvedDirectMemory(), is(10L));
+        buffers.forEach(RetainableByteBuffer::release);
+    }
+
+    @Test
+    public void testMaxMemory()
+    {
+        SlabRetainableByteBufferPool pool = new SlabRetainableByteBufferPool(10, 20, Integer.MAX_VALUE, 20, -1, 40);
+
+        List<RetainableByteBuffer> buffers = new ArrayList<>();
+        buffers.add(pool.acquire(20, true));
+        buffers.add(pool.acquire(20, true));
+        // Not pooled, the max memory is reached.
+        RetainableByteBuffer buffer = pool.acquire(20, true);
+        assertThat(buffer.capacity(), is(20));
+        buffers.add(buffer);
+
+        assertThat(pool.getDirectSlabCount(), is(2));
+        assertThat(pool.getDirectMemory(), is(40L));
+        assertThat(pool.getDirectByteBufferCount(), is(2L));
+
+        buffers.forEach(RetainableByteBuffer::release);
+        assertThat(pool.getAvailableDirectByteBufferCount(), is(2L));
+    }
+
+    @Test
+    public void testOverMaxCapacityDoesNotPool()
+    {
+        SlabRetainableByteBufferPool pool = new SlabRetainableByteBufferPool(10, 20, Integer.MAX_VALUE, 100, -1, -1);
+
+        RetainableByteBuffer buffer = pool.acquire(21, true);
+        assertThat(buffer.capacity(), is(21));
+        buffer.release();
+        assertThat(pool.getDirectSlabCount(), is(0));
+        assertThat(pool.getDirectByteBufferCount(), is(0L));
+    }
+
+    @Test
+    public void testMaxBucketSize()
+    {
+        SlabRetainableByteBufferPool pool = new SlabRetainableByteBufferPool(10, 20, 1, 100, -1, -1);
+
+        RetainableByteBuffer buf1 = pool.acquire(10, true);
+        RetainableByteBuffer buf2 = pool.acquire(10, true);
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+        assertThat(pool.getUncarvedDirectMemory(), is(90L));
+        buf1.release();
+        buf2.release();
+        assertThat(pool.acquire(10, true), sameInstance(buf1));
+    }
+
+    @Test
+    public void testClear()
+    {
+        SlabRetainableByteBufferPool pool = new SlabRetainableByteBufferPool(10, 20, Integer.MAX_VALUE, 100, -1, -1);
+
+        RetainableByteBuffer idle = pool.acquire(10, true);
+        idle.release();
+        RetainableByteBuffer inUse = pool.acquire(20, true);
+
+        pool.clear();
+        // The slab is still accounted while one of its buffers is in use.
+        assertThat(pool.getDirectSlabCount(), is(1));
+        assertThat(pool.getDirectMemory(), is(100L));
+        assertThat(pool.getUncarvedDirectMemory(), is(0L));
+        assertThat(pool.getDirectByteBufferCount(), is(0L));
+
+        // Releasing a buffer acquired before the clear does not re-pool it.
+        inUse.release();
+        assertThat(pool.getDirectByteBufferCount(), is(0L));
+        assertThat(pool.getDirectSlabCount(), is(0));
+        assertThat(pool.getDirectMemory(), is(0L));
+        assertThat(pool.acquire(10, true), not(sameInstance(idle)));
+        assertThat(pool.getDirectSlabCount(), is(1));
+    }
+
+    @Test
+    public void testClearedSlabsCountTowardsMaxMemory()
+    {
+        SlabRetainableByteBufferPool pool = new SlabRetainableByteBufferPool(10, 20, Integer.MAX_VALUE, 100, -1, 100);
+
+        RetainableByteBuffer inUse = pool.acquire(10, true);
+        pool.clear();
+
+        // The cleared slab is still pinned, so no new slab can be allocated.
+        RetainableByteBuffer buffer = pool.acquire(10, true);
+        assertThat(pool.getDirectSlabCount(), is(1));
+        assertThat(pool.getDirectByteBufferCount(), is(0L));
+        buffer.release();
+
+        inUse.release();
+        buffer = pool.acquire(10, true);
+        assertThat(pool.getDirectSlabCount(), is(1));
+        assertThat(pool.getDirectByteBufferCount(), is(1L));
+        buffer.release();
+    }
+
+    @Test
+    public void testMappedSlabs()
+    {
+        Path dir = workDir.getEmptyPathDir();
+        SlabRetainableByteBufferPool pool = new SlabRetainableByteBufferPool(10, 20, Integer.MAX_VALUE, 100, -1, -1, dir);
+
+        RetainableByteBuffer buffer = pool.acquire(10, true);
+        ByteBuffer byteBuffer = buffer.getBuffer();
+        assertThat(byteBuffer.isDirect(), is(true));
+        BufferUtil.append(byteBuffer, "0123456789".getBytes(StandardCharsets.US_ASCII), 0, 10);
+        assertThat(BufferUtil.toString(byteBuffer), is("0123456789"));
+        buffer.release();
+
+        assertThat(pool.getDirectMemory(), is(100L));
+        // The backing file is deleted once mapped.
+        assertThat(dir.toFile().list().length, is(0));
+    }
+
+    @Test
+    public void testSlabSmallerThanMaxCapacity()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new SlabRetainableByteBufferPool(10, 20, Integer.MAX_VALUE, 10, -1, -1));
+    }
+}
@@ -22,11 +22,16 @@ import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.channels.WritePendingException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
@@ -439,6 +444,126 @@ public class SocketChannelEndPointTest
         }
     }
 
+    @Test
+    public void testTransferFrom() throws Exception
+    {
+        init(new NormalScenario());
+
+        // Large enough to fill the socket buffers, so that the transfer is incomplete.
+        byte[] data = new byte[8 * 1024 * 1024];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte)i;
+        }
+        Path path = MavenTestingUtils.getTargetTestingPath("testTransferFrom").resolve("data.bin");
+        Files.createDirectories(path.getParent());
+        Files.write(path, data);
+
+        try (Socket client = _scenario.newClient(_connector);
+             FileChannel file = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            client.setSoTimeout(10000);
+            try (SocketChannel server = _connector.accept())
+            {
+                server.configureBlocking(false);
+                _manager.accept(server);
+                assertTrue(_lastEndPointLatch.await(10, TimeUnit.SECONDS));
+                EndPoint endPoint = _lastEndPoint;
+                assertTrue(endPoint.isFileTransferSupported());
+
+                FutureCallback header = new FutureCallback();
+                endPoint.write(header, BufferUtil.toBuffer("HEADER"));
+                header.get(10, TimeUnit.SECONDS);
+
+                int offset = 10;
+                int length = data.length - 2 * offset;
+                FutureCallback transfer = new FutureCallback();
+                endPoint.transferFrom(transfer, file, offset, length);
+
+                InputStream in = new BufferedInputStream(client.getInputStream());
+                for (char c : "HEADER".toCharArray())
+                {
+                    assertEquals(c, (char)in.read());
+                }
+                for (int i = 0; i < length; i++)
+                {
+                    assertEquals(data[offset + i], (byte)in.read(), "byte " + i);
+                }
+                transfer.get(10, TimeUnit.SECONDS);
+
+                // The EndPoint can be written normally after the transfer.
+                FutureCallback trailer = new FutureCallback();
+                endPoint.write(trailer, BufferUtil.toBuffer("END"));
+                trailer.get(10, TimeUnit.SECONDS);
+                for (char c : "END".toCharArray())
+                {
+                    assertEquals(c, (char)in.read());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTransferFromWhileWritePending() throws Exception
+    {
+        init(new NormalScenario());
+
+        // Large enough to fill the socket buffers, so that the writes are pending.
+        byte[] data = new byte[32 * 1024 * 1024];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte)i;
+        }
+        Path path = MavenTestingUtils.getTargetTestingPath("testTransferFromWhileWritePending").resolve("data.bin");
+        Files.createDirectories(path.getParent());
+        Files.write(path, data);
+
+        try (Socket client = _scenario.newClient(_connector);
+             FileChannel file = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            client.setSoTimeout(10000);
+            try (SocketChannel server = _connector.accept())
+            {
+                server.configureBlocking(false);
+                _manager.accept(server);
+                assertTrue(_lastEndPointLatch.await(10, TimeUnit.SECONDS));
+                EndPoint endPoint = _lastEndPoint;
+                InputStream in = new BufferedInputStream(client.getInputStream());
+
+                // A transfer must not be installed while a write is pending.
+                FutureCallback write = new FutureCallback();
+                endPoint.write(write, ByteBuffer.wrap(data));
+                assertFalse(write.isDone());
+                assertThrows(WritePendingException.class, () -> endPoint.transferFrom(new FutureCallback(), file, 0, 16));
+                for (int i = 0; i < data.length; i++)
+                {
+                    assertEquals(data[i], (byte)in.read(), "byte " + i);
+                }
+                write.get(10, TimeUnit.SECONDS);
+
+                // A transfer must not replace a pending transfer.
+                FutureCallback transfer = new FutureCallback();
+                endPoint.transferFrom(transfer, file, 0, data.length);
+                assertFalse(transfer.isDone());
+                assertThrows(WritePendingException.class, () -> endPoint.transferFrom(new FutureCallback(), file, 0, 16));
+                for (int i = 0; i < data.length; i++)
+                {
+                    assertEquals(data[i], (byte)in.read(), "byte " + i);
+                }
+                transfer.get(10, TimeUnit.SECONDS);
+
+                // Nothing else is written.
+                FutureCallback trailer = new FutureCallback();
+                endPoint.write(trailer, BufferUtil.toBuffer("END"));
+                trailer.get(10, TimeUnit.SECONDS);
+                for (char c : "END".toCharArray())
+                {
+                    assertEquals(c, (char)in.read());
+                }
+            }
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("scenarios")
     @Tag("Unstable")
@@ -14,6 +14,7 @@
 package org.eclipse.jetty.io;
 
 import java.io.BufferedReader;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -49,6 +50,7 @@ import org.slf4j.LoggerFactory;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -65,6 +67,8 @@ public class SslConnectionTest
     protected volatile EndPoint _lastEndp;
     private volatile boolean _testFill = true;
     private volatile boolean _onXWriteThenShutdown = false;
+    private volatile int _maxWrapRecords = 1;
+    private volatile ByteBuffer _onOpenContent;
 
     private volatile FutureCallback _writeCallback;
     protected ServerSocketChannel _connector;
@@ -89,6 +93,7 @@ public class SslConnectionTest
             SslConnection sslConnection = new SslConnection(__byteBufferPool, getExecutor(), endpoint, engine);
             sslConnection.setRenegotiationAllowed(_sslCtxFactory.isRenegotiationAllowed());
             sslConnection.setRenegotiationLimit(_sslCtxFactory.getRenegotiationLimit());
+            sslConnection.setMaxWrapRecords(_maxWrapRecords);
             Connection appConnection = new TestConnection(sslConnection.getDecryptedEndPoint());
             sslConnection.getDecryptedEndPoint().setConnection(appConnection);
             return sslConnection;
@@ -198,7 +203,8 @@ public class SslConnectionTest
                 fillInterested();
             else
             {
-                getExecutor().execute(() -> getEndPoint().write(_writeCallback, BufferUtil.toBuffer("Hello Client")));
+                ByteBuffer content = _onOpenContent == null ? BufferUtil.toBuffer("Hello Client") : _onOpenContent;
+                getExecutor().execute(() -> getEndPoint().write(_writeCallback, content));
             }
         }
 
@@ -427,6 +433,36 @@ public class SslConnectionTest
         }
     }
 
+    @Test
+    public void testWriteWrapsManyRecordsBeforeFlush() throws Exception
+    {
+        byte[] content = new byte[100 * 1024];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte)('A' + i % 26);
+        }
+        _testFill = false;
+        _maxWrapRecords = 3;
+        _onOpenContent = ByteBuffer.wrap(content);
+        _writeCallback = new FutureCallback();
+        startSSL();
+        try (SSLSocket client = newClient())
+        {
+            client.setSoTimeout(5000);
+            try (SocketChannel server = _connector.accept())
+            {
+                server.configureBlocking(false);
+                _manager.accept(server);
+
+                byte[] received = new byte[content.length];
+                new DataInputStream(client.getInputStream()).readFully(received);
+                assertArrayEquals(content, received);
+
+                assertNull(_writeCallback.get(5, TimeUnit.SECONDS));
+            }
+        }
+    }
+
     @Test
     public void testBlockedWrite() throws Exception
     {
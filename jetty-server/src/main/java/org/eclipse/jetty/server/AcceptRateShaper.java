@@ -0,0 +1,277 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.nio.channels.SelectableChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.io.SelectorManager;
+import org.eclipse.jetty.util.NanoTime;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.Name;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.component.Container;
+import org.eclipse.jetty.util.thread.AutoLock;
+import org.eclipse.jetty.util.thread.Scheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A Listener that shapes the rate at which new connections are accepted with a token bucket.</p>
+ * <p>
+ * The bucket holds up to {@code burst} tokens and is refilled at {@code acceptRate} tokens per second;
+ * each accepted connection takes one token. When the bucket is empty, accepting is suspended only for
+ * the time needed to refill one token, so that during connection storms connections keep being accepted
+ * at a steady rate, rather than being suspended for a whole period like with {@link AcceptRateLimit}.
+ * Connections not yet accepted are held in the operating system accept queue.
+ * </p>
+ * <p>
+ * It can be applied to an entire server or to a specific connector by adding it
+ * via {@link Container#addBean(Object)}
+ * </p>
+ * <p>
+ * <b>Usage:</b>
+ * </p>
+ * <pre>
+ *   Server server = new Server();
+ *   server.addBean(new AcceptRateShaper(500, 50, server));
+ *   ...
+ *   server.start();
+ * </pre>
+ *
+ * @see SelectorManager.AcceptListener
+ * @see ServerConnector#setAcceptBatchSize(int)
+ */
+@ManagedObject
+public class AcceptRateShaper extends AbstractLifeCycle implements SelectorManager.AcceptListener, Runnable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(AcceptRateShaper.class);
+
+    private final AutoLock _lock = new AutoLock();
+    private final Server _server;
+    private final List<AbstractConnector> _connectors = new ArrayList<>();
+    private final int _acceptRate;
+    private final int _burst;
+    private double _tokens;
+    private long _lastRefill;
+    private boolean _shaping;
+    private long _suspensions;
+    private Scheduler.Task _task;
+
+    /**
+     * @param acceptRate the number of connections accepted per second
+     * @param burst the max number of connections that can be accepted at once
+     * @param server the server whose connectors are shaped
+     */
+    public AcceptRateShaper(@Name("acceptRate") int acceptRate, @Name("burst") int burst, @Name("server") Server server)
+    {
+        if (acceptRate <= 0)
+            throw new IllegalArgumentException("Invalid accept rate " + acceptRate);
+        _server = server;
+        _acceptRate = acceptRate;
+        _burst = Math.max(1, burst);
+    }
+
+    /**
+     * @param acceptRate the number of connections accepted per second
+     * @param burst the max number of connections that can be accepted at once
+     * @param connectors the connectors that are shaped
+     */
+    public AcceptRateShaper(@Name("acceptRate") int acceptRate, @Name("burst") int burst, @Name("connectors") Connector... connectors)
+    {
+        this(acceptRate, burst, (Server)null);
+        for (Connector c : connectors)
+        {
+            if (c instanceof AbstractConnector)
+                _connectors.add((AbstractConnector)c);
+            else
+                LOG.warn("Connector {} is not an AbstractConnector. Connections not shaped", c);
+        }
+    }
+
+    @ManagedAttribute("The number of connections accepted per second")
+    public int getAcceptRate()
+    {
+        return _acceptRate;
+    }
+
+    @ManagedAttribute("The max number of connections accepted at once")
+    public int getBurst()
+    {
+        return _burst;
+    }
+
+    @ManagedAttribute("The number of connections that can be accepted without suspending accepting")
+    public int getTokens()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            refill(NanoTime.now());
+            return (int)Math.floor(_tokens);
+        }
+    }
+
+    @ManagedAttribute("Whether accepting is currently suspended")
+    public boolean isShaping()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            return _shaping;
+        }
+    }
+
+    @ManagedAttribute("The number of times accepting was suspended")
+    public long getSuspensions()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            return _suspensions;
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            if (_server != null)
+            {
+                for (Connector c : _server.getConnectors())
+                {
+                    if (c instanceof AbstractConnector)
+                        _connectors.add((AbstractConnector)c);
+                    else
+                        LOG.warn("Connector {} is not an AbstractConnector. Connections not shaped", c);
+                }
+            }
+
+            _tokens = _burst;
+            _lastRefill = NanoTime.now();
+            _suspensions = 0;
+
+            if (LOG.isDebugEnabled())
+                LOG.debug("AcceptRateShaper rate={}/s burst={} in {}", _acceptRate, _burst, _connectors);
+
+            for (AbstractConnector c : _connectors)
+            {
+                c.addBean(this);
+            }
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            if (_task != null)
+                _task.cancel();
+            _task = null;
+            for (AbstractConnector c : _connectors)
+            {
+                c.removeBean(this);
+            }
+            _shaping = false;
+            if (_server != null)
+                _connectors.clear();
+        }
+    }
+
+    private void refill(long now)
+    {
+        long elapsed = NanoTime.elapsed(_lastRefill, now);
+        _lastRefill = now;
+        _tokens = Math.min(_burst, _tokens + elapsed * _acceptRate / (double)TimeUnit.SECONDS.toNanos(1));
+    }
+
+    protected void shape()
+    {
+        for (AbstractConnector c : _connectors)
+        {
+            c.setAccepting(false);
+        }
+    }
+
+    protected void unshape()
+    {
+        for (AbstractConnector c : _connectors)
+        {
+            c.setAccepting(true);
+        }
+    }
+
+    @Override
+    public void onAccepting(SelectableChannel channel)
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            refill(NanoTime.now());
+            // Connections already accepted concurrently may bring
+            // the tokens below zero, delaying the next refill.
+            _tokens -= 1;
+            if (LOG.isDebugEnabled())
+                LOG.debug("onAccepting tokens {}/{} for {}", _tokens, _burst, channel);
+            if (_tokens < 1 && !_shaping && isRunning())
+            {
+                _shaping = true;
+                ++_suspensions;
+                shape();
+                schedule();
+            }
+        }
+    }
+
+    private void schedule()
+    {
+        // The time to refill the tokens up to 1.
+        long delay = (long)Math.ceil((1 - _tokens) * TimeUnit.SECONDS.toNanos(1) / _acceptRate);
+        delay = Math.max(TimeUnit.MILLISECONDS.toNanos(1), delay);
+        if (LOG.isDebugEnabled())
+            LOG.debug("schedule {} {}", delay, TimeUnit.NANOSECONDS);
+        _task = _connectors.get(0).getScheduler().schedule(this, delay, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            _task = null;
+            if (!isRunning())
+                return;
+            refill(NanoTime.now());
+            if (_tokens < 1)
+            {
+                schedule();
+                return;
+            }
+            if (_shaping)
+            {
+                _shaping = false;
+                if (LOG.isDebugEnabled())
+                    LOG.debug("AcceptRateShaper resuming with {} tokens on {}", _tokens, _connectors);
+                unshape();
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{rate=%d/s,burst=%d}", getClass().getSimpleName(), hashCode(), _acceptRate, _burst);
+    }
+}
@@ -17,16 +17,17 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jetty.http.CompressedContentFormat;
 import org.eclipse.jetty.http.DateGenerator;
@@ -39,15 +40,31 @@ import org.eclipse.jetty.http.PreEncodedHttpField;
 import org.eclipse.jetty.http.PrecompressedHttpContent;
 import org.eclipse.jetty.http.ResourceHttpContent;
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.resource.Resource;
 import org.eclipse.jetty.util.resource.ResourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * <p>A {@link HttpContent.ContentFactory} that caches the metadata and the buffers of the
+ * resources obtained from a {@link ResourceFactory}.</p>
+ * <p>The cache is bounded by the number of cached files and by the number of bytes of the
+ * cached buffers. Eviction uses a segmented LRU policy: new entries are added to a probation
+ * segment and entries that are hit again are promoted to a protected segment, which can hold
+ * up to 80% of the cache; victims are taken from the probation segment first.
+ * The access frequency of each path is estimated by a compact count-min sketch, and when the
+ * cache is full a new entry is only admitted if it is accessed at least as frequently as the
+ * victim it would replace, so that a scan of rarely used resources does not flush the hot ones.</p>
+ */
+@ManagedObject("Cache of static content")
 public class CachedContentFactory implements HttpContent.ContentFactory
 {
     private static final Logger LOG = LoggerFactory.getLogger(CachedContentFactory.class);
     private static final Map<CompressedContentFormat, CachedPrecompressedHttpContent> NO_PRECOMPRESSED = Collections.unmodifiableMap(Collections.emptyMap());
+    private static final Map<CompressedContentFormat, CachedCompressedHttpContent> NO_COMPRESSED = Collections.unmodifiableMap(Collections.emptyMap());
 
     private final ConcurrentMap<String, CachedHttpContent> _cache;
     private final AtomicInteger _cachedSize;
@@ -58,6 +75,15 @@ public class CachedContentFactory implements HttpContent.ContentFactory
     private final boolean _etags;
     private final CompressedContentFormat[] _precompressedFormats;
     private final boolean _useFileMappedBuffer;
+    private final ReentrantLock _lock = new ReentrantLock();
+    private final Segment _probation = new Segment();
+    private final Segment _protected = new Segment();
+    private final FrequencySketch _sketch = new FrequencySketch();
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private final LongAdder _evictions = new LongAdder();
+    private SharedContentStore _contentStore;
+    private ContentCompressor _contentCompressor;
 
     private int _maxCachedFileSize = 128 * 1024 * 1024;
     private int _maxCachedFiles = 2048;
@@ -84,18 +110,22 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         _useFileMappedBuffer = useFileMappedBuffer;
         _etags = etags;
         _precompressedFormats = precompressedFormats;
+        _sketch.ensureCapacity(_maxCachedFiles);
     }
 
+    @ManagedAttribute("The number of bytes of the cached buffers")
     public int getCachedSize()
     {
         return _cachedSize.get();
     }
 
+    @ManagedAttribute("The number of cached files")
     public int getCachedFiles()
     {
         return _cachedFiles.get();
     }
 
+    @ManagedAttribute("The max size of a cached file in bytes")
     public int getMaxCachedFileSize()
     {
         return _maxCachedFileSize;
@@ -104,9 +134,10 @@ public class CachedContentFactory implements HttpContent.ContentFactory
     public void setMaxCachedFileSize(int maxCachedFileSize)
     {
         _maxCachedFileSize = maxCachedFileSize;
-        shrinkCache();
+        shrinkCache(null);
     }
 
+    @ManagedAttribute("The max number of bytes of the cached buffers")
     public int getMaxCacheSize()
     {
         return _maxCacheSize;
@@ -115,12 +146,13 @@ public class CachedContentFactory implements HttpContent.ContentFactory
     public void setMaxCacheSize(int maxCacheSize)
     {
         _maxCacheSize = maxCacheSize;
-        shrinkCache();
+        shrinkCache(null);
     }
 
     /**
      * @return the max number of cached files.
      */
+    @ManagedAttribute("The max number of cached files")
     public int getMaxCachedFiles()
     {
         return _maxCachedFiles;
@@ -132,7 +164,51 @@ public class CachedContentFactory implements HttpContent.ContentFactory
     public void setMaxCachedFiles(int maxCachedFiles)
     {
         _maxCachedFiles = maxCachedFiles;
-        shrinkCache();
+        _lock.lock();
+        try
+        {
+            _sketch.ensureCapacity(maxCachedFiles);
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+        shrinkCache(null);
+    }
+
+    /**
+     * @return the number of lookups that found valid cached content
+     */
+    @ManagedAttribute("The number of cache hits")
+    public long getHits()
+    {
+        return _hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that did not find valid cached content
+     */
+    @ManagedAttribute("The number of cache misses")
+    public long getMisses()
+    {
+        return _misses.sum();
+    }
+
+    /**
+     * @return the number of entries evicted, or not admitted, to keep the cache within its bounds
+     */
+    @ManagedAttribute("The number of cache evictions")
+    public long getEvictions()
+    {
+        return _evictions.sum();
+    }
+
+    @ManagedOperation(value = "Resets the statistics", impact = "ACTION")
+    public void resetStats()
+    {
+        _hits.reset();
+        _misses.reset();
+        _evictions.reset();
     }
 
     public boolean isUseFileMappedBuffer()
@@ -140,6 +216,44 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         return _useFileMappedBuffer;
     }
 
+    /**
+     * @return the store the direct buffers are obtained from, or null
+     */
+    public SharedContentStore getContentStore()
+    {
+        return _contentStore;
+    }
+
+    /**
+     * @param contentStore the store the direct buffers are obtained from, or null to load them in this cache
+     */
+    public void setContentStore(SharedContentStore contentStore)
+    {
+        _contentStore = contentStore;
+    }
+
+    /**
+     * @return the compressor of the cached content, or null
+     */
+    public ContentCompressor getContentCompressor()
+    {
+        return _contentCompressor;
+    }
+
+    /**
+     * <p>Sets the compressor of the cached content.</p>
+     * <p>Compressible content that is cached after this call is compressed in the background
+     * when it is first requested, and its compressed variants are cached with it and
+     * returned by {@link HttpContent#getPrecompressedContents()} in addition to the
+     * precompressed files found on disk.</p>
+     *
+     * @param contentCompressor the compressor of the cached content, or null to only use precompressed files
+     */
+    public void setContentCompressor(ContentCompressor contentCompressor)
+    {
+        _contentCompressor = contentCompressor;
+    }
+
     public void flushCache()
     {
         while (_cache.size() > 0)
@@ -171,7 +285,12 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         // Is the content in this cache?
         CachedHttpContent content = _cache.get(pathInContext);
         if (content != null && (content).isValid())
+        {
+            _hits.increment();
+            onHit(content);
             return content;
+        }
+        _misses.increment();
 
         // try loading the content from our factory.
         Resource resource = _factory.getResource(pathInContext);
@@ -240,6 +359,10 @@ public class CachedContentFactory implements HttpContent.ContentFactory
                                 compressedContent.invalidate();
                                 compressedContent = added;
                             }
+                            else
+                            {
+                                admit(compressedContent);
+                            }
                         }
                     }
                     if (compressedContent != null)
@@ -257,6 +380,10 @@ public class CachedContentFactory implements HttpContent.ContentFactory
                 content.invalidate();
                 content = added;
             }
+            else
+            {
+                admit(content);
+            }
 
             return content;
         }
@@ -288,36 +415,146 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         return new ResourceHttpContent(resource, mt, maxBufferSize);
     }
 
-    private void shrinkCache()
+    private void admit(CachedHttpContent content)
+    {
+        _lock.lock();
+        try
+        {
+            _sketch.increment(content._hash);
+            // The content may have already been invalidated by a concurrent thread.
+            if (_cache.get(content.getKey()) != content)
+                return;
+            _probation.add(content);
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+        if (_cachedFiles.get() > _maxCachedFiles || _cachedSize.get() > _maxCacheSize)
+            shrinkCache(content);
+    }
+
+    private void onHit(CachedHttpContent content)
     {
-        // While we need to shrink
-        while (_cache.size() > 0 && (_cachedFiles.get() > _maxCachedFiles || _cachedSize.get() > _maxCacheSize))
+        // Hits are only a hint for the eviction policy, so rather than
+        // contending the lock they are not recorded if it is already held.
+        if (!_lock.tryLock())
+            return;
+        try
         {
-            // Scan the entire cache and generate an ordered list by last accessed time.
-            SortedSet<CachedHttpContent> sorted = new TreeSet<>((c1, c2) ->
+            _sketch.increment(content._hash);
+            Segment segment = content._segment;
+            if (segment == _protected)
+            {
+                _protected.remove(content);
+                _protected.add(content);
+            }
+            else if (segment == _probation)
             {
-                if (c1._lastAccessed < c2._lastAccessed)
-                    return -1;
+                _probation.remove(content);
+                _protected.add(content);
 
-                if (c1._lastAccessed > c2._lastAccessed)
-                    return 1;
+                // Demote the least recently used protected entries if the protected segment is too large.
+                long maxProtectedSize = _maxCacheSize * 4L / 5;
+                long maxProtectedFiles = _maxCachedFiles * 4L / 5;
+                while (_protected._head != null && (_protected._files > maxProtectedFiles || _protected._size > maxProtectedSize))
+                {
+                    CachedHttpContent demoted = _protected._head;
+                    _protected.remove(demoted);
+                    _probation.add(demoted);
+                }
+            }
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+    }
 
-                if (c1._contentLengthValue < c2._contentLengthValue)
-                    return -1;
+    private void onBuffer(CachedHttpContent content, int size)
+    {
+        _lock.lock();
+        try
+        {
+            // An entry that is no longer cached, for example because it was not admitted,
+            // may still load buffers for the request that obtained it, but they are not accounted.
+            if (content._invalidated)
+                return;
+            account(content, size);
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+        if (_cachedSize.get() > _maxCacheSize)
+            shrinkCache(content);
+    }
 
-                return c1._key.compareTo(c2._key);
-            });
-            sorted.addAll(_cache.values());
+    private void onCompressed(CachedHttpContent content, Map<CompressedContentFormat, CachedCompressedHttpContent> compressed, int size)
+    {
+        _lock.lock();
+        try
+        {
+            // The content may have been invalidated while it was compressed; the variants
+            // are installed and accounted atomically with respect to invalidate().
+            if (content._invalidated || !content._compressed.compareAndSet(NO_COMPRESSED, compressed))
+                return;
+            account(content, size);
+        }
+        finally
+        {
+            _lock.unlock();
+        }
+        if (_cachedSize.get() > _maxCacheSize)
+            shrinkCache(content);
+    }
 
-            // Invalidate least recently used first
-            for (CachedHttpContent content : sorted)
+    private void account(CachedHttpContent content, int size)
+    {
+        assert _lock.isHeldByCurrentThread();
+        content._size += size;
+        Segment segment = content._segment;
+        if (segment != null)
+            segment._size += size;
+        _cachedSize.addAndGet(size);
+    }
+
+    /**
+     * <p>Evicts entries until the cache is within its bounds.</p>
+     *
+     * @param candidate the entry whose addition or growth caused the cache to exceed its bounds, or null
+     */
+    private void shrinkCache(CachedHttpContent candidate)
+    {
+        _lock.lock();
+        try
+        {
+            while (_cachedFiles.get() > _maxCachedFiles || _cachedSize.get() > _maxCacheSize)
             {
-                if (_cachedFiles.get() <= _maxCachedFiles && _cachedSize.get() <= _maxCacheSize)
+                CachedHttpContent victim = _probation._head != null ? _probation._head : _protected._head;
+                if (victim == null)
                     break;
-                if (content == _cache.remove(content.getKey()))
-                    content.invalidate();
+
+                // A candidate that is still on probation is only admitted if it is
+                // accessed at least as frequently as the entry it would replace.
+                if (candidate != null && candidate != victim && candidate._segment == _probation &&
+                    _sketch.frequency(candidate._hash) < _sketch.frequency(victim._hash))
+                    victim = candidate;
+                candidate = null;
+
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Evicting {}", victim);
+                _evictions.increment();
+                if (_cache.remove(victim.getKey(), victim))
+                    victim.invalidate();
+                else
+                    victim.unlink();
             }
         }
+        finally
+        {
+            _lock.unlock();
+        }
     }
 
     protected ByteBuffer getIndirectBuffer(Resource resource)
@@ -390,11 +627,22 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         private final AtomicReference<ByteBuffer> _indirectBuffer = new AtomicReference<>();
         private final AtomicReference<ByteBuffer> _directBuffer = new AtomicReference<>();
         private final AtomicReference<ByteBuffer> _mappedBuffer = new AtomicReference<>();
-        private volatile long _lastAccessed;
+        private final AtomicReference<Map<CompressedContentFormat, CachedCompressedHttpContent>> _compressed = new AtomicReference<>();
+        private final ContentCompressor _compressor;
+        private volatile boolean _compressible;
+        private volatile String _storeKey;
+        private final int _hash;
+        // The following fields are guarded by the factory lock.
+        private Segment _segment;
+        private CachedHttpContent _prev;
+        private CachedHttpContent _next;
+        private long _size;
+        private boolean _invalidated;
 
         CachedHttpContent(String pathInContext, Resource resource, Map<CompressedContentFormat, CachedHttpContent> precompressedResources)
         {
             _key = pathInContext;
+            _hash = FrequencySketch.spread(pathInContext.hashCode());
             _resource = resource;
 
             String contentType = _mimeTypes.getMimeByExtension(_resource.toString());
@@ -410,10 +658,7 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             _contentLengthValue = exists ? resource.length() : 0;
             _contentLength = new PreEncodedHttpField(HttpHeader.CONTENT_LENGTH, Long.toString(_contentLengthValue));
 
-            if (_cachedFiles.incrementAndGet() > _maxCachedFiles)
-                shrinkCache();
-
-            _lastAccessed = System.currentTimeMillis();
+            _cachedFiles.incrementAndGet();
 
             _etag = CachedContentFactory.this._etags ? new PreEncodedHttpField(HttpHeader.ETAG, resource.getWeakETag()) : null;
 
@@ -429,6 +674,9 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             {
                 _precompressed = NO_PRECOMPRESSED;
             }
+
+            _compressor = _contentCompressor;
+            _compressible = _compressor != null && _compressor.isCompressible(this);
         }
 
         public String getKey()
@@ -462,10 +710,7 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         boolean isValid()
         {
             if (_lastModifiedValue == _resource.lastModified() && _contentLengthValue == _resource.length())
-            {
-                _lastAccessed = System.currentTimeMillis();
                 return true;
-            }
 
             if (this == _cache.remove(_key))
                 invalidate();
@@ -474,20 +719,47 @@ public class CachedContentFactory implements HttpContent.ContentFactory
 
         protected void invalidate()
         {
-            ByteBuffer indirect = _indirectBuffer.getAndSet(null);
-            if (indirect != null)
-                _cachedSize.addAndGet(-BufferUtil.length(indirect));
-
-            ByteBuffer direct = _directBuffer.getAndSet(null);
-            if (direct != null)
-                _cachedSize.addAndGet(-BufferUtil.length(direct));
+            _lock.lock();
+            try
+            {
+                if (_invalidated)
+                    return;
+                _invalidated = true;
+                if (_segment != null)
+                    _segment.remove(this);
+                // The size of all the buffers accounted by onBuffer().
+                _cachedSize.addAndGet((int)-_size);
+                _size = 0;
+            }
+            finally
+            {
+                _lock.unlock();
+            }
 
-            _mappedBuffer.getAndSet(null);
+            _indirectBuffer.set(null);
+            _directBuffer.set(null);
+            _mappedBuffer.set(null);
+            _compressible = false;
+            _compressed.set(null);
 
             _cachedFiles.decrementAndGet();
             _resource.close();
         }
 
+        private void unlink()
+        {
+            _lock.lock();
+            try
+            {
+                if (_segment != null)
+                    _segment.remove(this);
+            }
+            finally
+            {
+                _lock.unlock();
+            }
+        }
+
         @Override
         public HttpField getLastModified()
         {
@@ -563,8 +835,7 @@ public class CachedContentFactory implements HttpContent.ContentFactory
                 if (_indirectBuffer.compareAndSet(null, buffer2))
                 {
                     buffer = buffer2;
-                    if (_cachedSize.addAndGet(BufferUtil.length(buffer)) > _maxCacheSize)
-                        shrinkCache();
+                    onBuffer(this, BufferUtil.length(buffer));
                 }
                 else
                 {
@@ -577,6 +848,23 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         @Override
         public ByteBuffer getDirectBuffer()
         {
+            // Buffers of the shared store are looked up for each call and never retained,
+            // so that they are only bounded by the store and not accounted in this cache.
+            SharedContentStore contentStore = _contentStore;
+            if (contentStore != null)
+            {
+                String key = _storeKey;
+                if (key == null)
+                {
+                    key = contentStore.getKey(_resource);
+                    _storeKey = key == null ? "" : key;
+                }
+                // The length and last modified time have already been validated by isValid().
+                ByteBuffer stored = key == null || key.isEmpty() ? null : contentStore.getBuffer(key, _resource, _contentLengthValue, _lastModifiedValue);
+                if (stored != null)
+                    return stored;
+            }
+
             ByteBuffer buffer = _mappedBuffer.get();
             if (buffer == null)
                 buffer = _directBuffer.get();
@@ -599,8 +887,7 @@ public class CachedContentFactory implements HttpContent.ContentFactory
                         if (_directBuffer.compareAndSet(null, direct))
                         {
                             buffer = direct;
-                            if (_cachedSize.addAndGet(BufferUtil.length(buffer)) > _maxCacheSize)
-                                shrinkCache();
+                            onBuffer(this, BufferUtil.length(buffer));
                         }
                         else
                         {
@@ -654,19 +941,72 @@ public class CachedContentFactory implements HttpContent.ContentFactory
         @Override
         public Map<CompressedContentFormat, ? extends HttpContent> getPrecompressedContents()
         {
+            Map<CompressedContentFormat, CachedCompressedHttpContent> compressed = getCompressedContents();
             if (_precompressed.size() == 0)
-                return null;
-            Map<CompressedContentFormat, CachedPrecompressedHttpContent> ret = _precompressed;
+                return compressed;
+            Map<CompressedContentFormat, HttpContent> ret = null;
             for (Map.Entry<CompressedContentFormat, CachedPrecompressedHttpContent> entry : _precompressed.entrySet())
             {
                 if (!entry.getValue().isValid())
                 {
-                    if (ret == _precompressed)
+                    if (ret == null)
                         ret = new HashMap<>(_precompressed);
                     ret.remove(entry.getKey());
                 }
             }
-            return ret;
+            if (compressed != null)
+            {
+                // Precompressed files take precedence over compressed variants of the same format.
+                for (Map.Entry<CompressedContentFormat, CachedCompressedHttpContent> entry : compressed.entrySet())
+                {
+                    if (!_precompressed.containsKey(entry.getKey()))
+                    {
+                        if (ret == null)
+                            ret = new HashMap<>(_precompressed);
+                        ret.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            if (ret == null)
+                return _precompressed;
+            // Without valid variants, the response does not vary unless this content is being compressed.
+            return ret.isEmpty() && compressed == null ? null : ret;
+        }
+
+        /**
+         * @return the compressed variants of this content, an empty map if they are being
+         * compressed, or null if this content is not compressible
+         */
+        private Map<CompressedContentFormat, CachedCompressedHttpContent> getCompressedContents()
+        {
+            if (!_compressible)
+                return null;
+            if (_compressed.get() == null && _compressed.compareAndSet(null, NO_COMPRESSED))
+                compress();
+            return _compressed.get();
+        }
+
+        private void compress()
+        {
+            _compressor.compress(_resource).whenComplete((variants, failure) ->
+            {
+                if (failure != null || variants.isEmpty())
+                {
+                    // Serve this content uncompressed.
+                    _compressible = false;
+                    return;
+                }
+
+                Map<CompressedContentFormat, CachedCompressedHttpContent> compressed = new HashMap<>(variants.size());
+                int size = 0;
+                for (Map.Entry<CompressedContentFormat, ByteBuffer> entry : variants.entrySet())
+                {
+                    compressed.put(entry.getKey(), new CachedCompressedHttpContent(this, entry.getValue(), entry.getKey()));
+                    size += entry.getValue().remaining();
+                }
+
+                onCompressed(this, compressed, size);
+            });
         }
     }
 
@@ -712,4 +1052,273 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             return "Cached" + super.toString();
         }
     }
+
+    /**
+     * <p>A compressed variant of a {@link CachedHttpContent}, produced by a {@link ContentCompressor}
+     * and held in memory with the cached content.</p>
+     */
+    public class CachedCompressedHttpContent implements HttpContent
+    {
+        private final CachedHttpContent _content;
+        private final ByteBuffer _buffer;
+        private final CompressedContentFormat _format;
+        private final HttpField _contentLength;
+        private final HttpField _etag;
+
+        CachedCompressedHttpContent(CachedHttpContent content, ByteBuffer buffer, CompressedContentFormat format)
+        {
+            _content = content;
+            _buffer = buffer.hasArray() ? buffer : ByteBuffer.wrap(BufferUtil.toArray(buffer));
+            _format = format;
+            _contentLength = new PreEncodedHttpField(HttpHeader.CONTENT_LENGTH, Long.toString(buffer.remaining()));
+            _etag = CachedContentFactory.this._etags ? new PreEncodedHttpField(HttpHeader.ETAG, content.getResource().getWeakETag(format.getEtagSuffix())) : null;
+        }
+
+        @Override
+        public Resource getResource()
+        {
+            return _content.getResource();
+        }
+
+        @Override
+        public HttpField getETag()
+        {
+            return _etag;
+        }
+
+        @Override
+        public String getETagValue()
+        {
+            return _etag == null ? null : _etag.getValue();
+        }
+
+        @Override
+        public HttpField getLastModified()
+        {
+            return _content.getLastModified();
+        }
+
+        @Override
+        public String getLastModifiedValue()
+        {
+            return _content.getLastModifiedValue();
+        }
+
+        @Override
+        public HttpField getContentType()
+        {
+            return _content.getContentType();
+        }
+
+        @Override
+        public String getContentTypeValue()
+        {
+            return _content.getContentTypeValue();
+        }
+
+        @Override
+        public HttpField getContentEncoding()
+        {
+            return _format.getContentEncoding();
+        }
+
+        @Override
+        public String getContentEncodingValue()
+        {
+            return _format.getContentEncoding().getValue();
+        }
+
+        @Override
+        public String getCharacterEncoding()
+        {
+            return _content.getCharacterEncoding();
+        }
+
+        @Override
+        public Type getMimeType()
+        {
+            return _content.getMimeType();
+        }
+
+        @Override
+        public void release()
+        {
+            _content.release();
+        }
+
+        @Override
+        public ByteBuffer getIndirectBuffer()
+        {
+            return _buffer.asReadOnlyBuffer();
+        }
+
+        @Override
+        public ByteBuffer getDirectBuffer()
+        {
+            return null;
+        }
+
+        @Override
+        public HttpField getContentLength()
+        {
+            return _contentLength;
+        }
+
+        @Override
+        public long getContentLengthValue()
+        {
+            return _buffer.remaining();
+        }
+
+        @Override
+        public InputStream getInputStream()
+        {
+            return new ByteArrayInputStream(_buffer.array(), _buffer.arrayOffset() + _buffer.position(), _buffer.remaining());
+        }
+
+        @Override
+        public ReadableByteChannel getReadableByteChannel()
+        {
+            return Channels.newChannel(getInputStream());
+        }
+
+        @Override
+        public Map<CompressedContentFormat, ? extends HttpContent> getPrecompressedContents()
+        {
+            return null;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("CachedCompressedContent@%x{e=%s,r=%s,c=%d}", hashCode(), _format, _content.getResource(), _buffer.remaining());
+        }
+    }
+
+    /**
+     * <p>A segment of the eviction policy: a doubly linked list of entries
+     * ordered from the least recently used (head) to the most recently used (tail).</p>
+     * <p>Segments are guarded by the factory lock.</p>
+     */
+    private static class Segment
+    {
+        private CachedHttpContent _head;
+        private CachedHttpContent _tail;
+        private int _files;
+        private long _size;
+
+        private void add(CachedHttpContent content)
+        {
+            content._segment = this;
+            content._prev = _tail;
+            content._next = null;
+            if (_tail == null)
+                _head = content;
+            else
+                _tail._next = content;
+            _tail = content;
+            _files++;
+            _size += content._size;
+        }
+
+        private void remove(CachedHttpContent content)
+        {
+            if (content._prev == null)
+                _head = content._next;
+            else
+                content._prev._next = content._next;
+            if (content._next == null)
+                _tail = content._prev;
+            else
+                content._next._prev = content._prev;
+            content._segment = null;
+            content._prev = null;
+            content._next = null;
+            _files--;
+            _size -= content._size;
+        }
+    }
+
+    /**
+     * <p>A count-min sketch of 4-bit counters that estimates the access frequency of the paths,
+     * including those that are not or no longer cached.</p>
+     * <p>All counters are halved after a number of increments proportional to the capacity of
+     * the sketch, so that the estimates favour recent accesses.</p>
+     * <p>The sketch is guarded by the factory lock.</p>
+     */
+    private static class FrequencySketch
+    {
+        private static final long[] SEEDS = {0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+        private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+
+        private long[] _table;
+        private int _sampleSize;
+        private int _additions;
+
+        private static int spread(int hash)
+        {
+            hash = ((hash >>> 16) ^ hash) * 0x45D9F3B;
+            hash = ((hash >>> 16) ^ hash) * 0x45D9F3B;
+            return (hash >>> 16) ^ hash;
+        }
+
+        private void ensureCapacity(int capacity)
+        {
+            int length = Math.max(16, Integer.highestOneBit(Math.max(1, Math.min(capacity, 1 << 24)) - 1) << 1);
+            if (_table != null && _table.length == length)
+                return;
+            _table = new long[length];
+            _sampleSize = 10 * length;
+            _additions = 0;
+        }
+
+        private int indexOf(int hash, int i)
+        {
+            long index = (hash + SEEDS[i]) * SEEDS[i];
+            index += index >>> 32;
+            return (int)index & (_table.length - 1);
+        }
+
+        private int frequency(int hash)
+        {
+            // Each hash uses a different 4-bit counter within each of its 4 table entries.
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++)
+            {
+                int offset = (start + i) << 2;
+                int count = (int)((_table[indexOf(hash, i)] >>> offset) & 0xF);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        private void increment(int hash)
+        {
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++)
+            {
+                int index = indexOf(hash, i);
+                int offset = (start + i) << 2;
+                long mask = 0xFL << offset;
+                if ((_table[index] & mask) != mask)
+                {
+                    _table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++_additions == _sampleSize)
+                reset();
+        }
+
+        private void reset()
+        {
+            for (int i = 0; i < _table.length; i++)
+            {
+                _table[i] = (_table[i] >>> 1) & RESET_MASK;
+            }
+            _additions >>>= 1;
+        }
+    }
 }
@@ -0,0 +1,149 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.DateGenerator;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.PreEncodedHttpField;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.Name;
+import org.eclipse.jetty.util.component.ContainerLifeCycle;
+import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+import org.eclipse.jetty.util.thread.Scheduler;
+
+/**
+ * <p>A server wide clock that is updated by a single scheduled task every
+ * {@link #getTickMillis() tick}, rather than read by every request.</p>
+ * <p>The clock provides the current time in milliseconds, with a precision of
+ * one tick, and a {@link PreEncodedHttpField pre-encoded} {@code Date} response
+ * header that is only regenerated when the second changes.
+ * While the clock is not running, the system clock is read directly.</p>
+ * <p>A clock is used by a {@link Server} once set with {@link Server#setCoarseClock(CoarseClock)}.</p>
+ */
+@ManagedObject("A coarse clock updated by a scheduled task")
+public class CoarseClock extends ContainerLifeCycle implements Runnable
+{
+    private final Scheduler _scheduler;
+    private final long _tickMillis;
+    private volatile Tick _tick;
+    private volatile Scheduler.Task _task;
+
+    public CoarseClock()
+    {
+        this(null, 100);
+    }
+
+    /**
+     * @param scheduler the scheduler used to update the clock, or null to use a private scheduler
+     * @param tickMillis the interval in milliseconds between updates of the clock
+     */
+    public CoarseClock(@Name("scheduler") Scheduler scheduler, @Name("tickMillis") long tickMillis)
+    {
+        if (tickMillis <= 0)
+            throw new IllegalArgumentException("Invalid tick " + tickMillis);
+        if (scheduler == null)
+        {
+            scheduler = new ScheduledExecutorScheduler(String.format("CoarseClock@%x", hashCode()), true);
+            addManaged(scheduler);
+        }
+        else
+        {
+            addBean(scheduler, false);
+        }
+        _scheduler = scheduler;
+        _tickMillis = tickMillis;
+    }
+
+    @ManagedAttribute("The interval in milliseconds between updates of the clock")
+    public long getTickMillis()
+    {
+        return _tickMillis;
+    }
+
+    /**
+     * @return the time in milliseconds of the last tick, or the system time if the clock is not running
+     */
+    public long currentTimeMillis()
+    {
+        Tick tick = _tick;
+        return tick == null ? System.currentTimeMillis() : tick._millis;
+    }
+
+    /**
+     * @return the {@code Date} header for the time of the last tick
+     */
+    public HttpField getDateField()
+    {
+        Tick tick = _tick;
+        if (tick == null)
+            return new PreEncodedHttpField(HttpHeader.DATE, DateGenerator.formatDate(System.currentTimeMillis()));
+        return tick._dateField;
+    }
+
+    @Override
+    protected void doStart() throws Exception
+    {
+        super.doStart();
+        _tick = new Tick(System.currentTimeMillis(), null);
+        _task = _scheduler.schedule(this, _tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        Scheduler.Task task = _task;
+        _task = null;
+        if (task != null)
+            task.cancel();
+        _tick = null;
+        super.doStop();
+    }
+
+    @Override
+    public void run()
+    {
+        Tick tick = _tick;
+        if (tick == null || !isRunning())
+            return;
+        _tick = new Tick(System.currentTimeMillis(), tick);
+        _task = _scheduler.schedule(this, _tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{tick=%dms,%s}", getClass().getSimpleName(), hashCode(), _tickMillis, getState());
+    }
+
+    private static class Tick
+    {
+        private final long _millis;
+        private final long _seconds;
+        private final HttpField _dateField;
+
+        private Tick(long millis, Tick previous)
+        {
+            _millis = millis;
+            _seconds = millis / 1000;
+            if (previous != null && previous._seconds == _seconds)
+                _dateField = previous._dateField;
+            else
+                _dateField = new PreEncodedHttpField(HttpHeader.DATE, DateGenerator.formatDate(millis));
+        }
+    }
+}
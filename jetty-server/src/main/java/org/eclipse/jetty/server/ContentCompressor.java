@@ -0,0 +1,410 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.eclipse.jetty.http.CompressedContentFormat;
+import org.eclipse.jetty.http.HttpContent;
+import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.util.AsciiLowerCaseSet;
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.IncludeExclude;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
+import org.eclipse.jetty.util.compression.CompressionPool;
+import org.eclipse.jetty.util.compression.DeflaterPool;
+import org.eclipse.jetty.util.component.ContainerLifeCycle;
+import org.eclipse.jetty.util.resource.Resource;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A compressor of static content that produces the compressed variants of
+ * the resources cached by {@link CachedContentFactory}, so that compressible
+ * resources that have no precompressed file on disk are compressed only once,
+ * rather than by {@link org.eclipse.jetty.server.handler.gzip.GzipHandler} on every request.</p>
+ * <p>Resources are compressed in the background by a low priority executor, and the
+ * variants are served with the {@code Content-Encoding} of their format, an ETag with
+ * the format suffix and a {@code Vary: Accept-Encoding} header, like precompressed files.
+ * Until its variants are available a resource is served uncompressed.</p>
+ * <p>Gzip is supported by default; other formats, such as brotli, can be added
+ * with {@link #addEncoder(Encoder)}.</p>
+ * <p>The compressor is enabled by adding it as a bean of the server:</p>
+ * <pre>
+ * server.addBean(new ContentCompressor());
+ * </pre>
+ * <p>{@code DefaultServlet} instances that use a {@link CachedContentFactory} then serve the
+ * compressed variants of the cached resources.</p>
+ */
+@ManagedObject("Background compressor of static content")
+public class ContentCompressor extends ContainerLifeCycle
+{
+    private static final Logger LOG = LoggerFactory.getLogger(ContentCompressor.class);
+    private static final byte[] GZIP_HEADER = new byte[]{(byte)0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final List<Encoder> _encoders = new CopyOnWriteArrayList<>();
+    private final IncludeExclude<String> _mimeTypes = new IncludeExclude<>(AsciiLowerCaseSet.class);
+    private final AtomicInteger _pending = new AtomicInteger();
+    private final LongAdder _compressions = new LongAdder();
+    private final LongAdder _failures = new LongAdder();
+    private Executor _executor;
+    private DeflaterPool _deflaterPool;
+    private int _minCompressSize = 1024;
+    private int _maxCompressSize = 16 * 1024 * 1024;
+
+    public ContentCompressor()
+    {
+        for (String type : MimeTypes.getKnownMimeTypes())
+        {
+            if (type.startsWith("image/") && !"image/svg+xml".equals(type) ||
+                type.startsWith("audio/") ||
+                type.startsWith("video/"))
+                _mimeTypes.exclude(type);
+        }
+        _mimeTypes.exclude("application/compress");
+        _mimeTypes.exclude("application/zip");
+        _mimeTypes.exclude("application/gzip");
+        _mimeTypes.exclude("application/bzip2");
+        _mimeTypes.exclude("application/brotli");
+        _mimeTypes.exclude("application/x-xz");
+        _mimeTypes.exclude("application/x-rar-compressed");
+        _mimeTypes.exclude("text/event-stream");
+        _encoders.add(new GzipEncoder());
+    }
+
+    /**
+     * @return the executor used to compress the resources
+     */
+    public Executor getExecutor()
+    {
+        return _executor;
+    }
+
+    /**
+     * <p>Sets the executor used to compress the resources.</p>
+     * <p>If no executor is set, a single thread with minimum priority is used,
+     * so that compression does not compete with the serving of requests.</p>
+     *
+     * @param executor the executor used to compress the resources
+     */
+    public void setExecutor(Executor executor)
+    {
+        if (isStarted())
+            throw new IllegalStateException(getState());
+        updateBean(_executor, executor);
+        _executor = executor;
+    }
+
+    /**
+     * @return the pool of deflaters used by the gzip encoder
+     */
+    public DeflaterPool getDeflaterPool()
+    {
+        return _deflaterPool;
+    }
+
+    /**
+     * <p>Sets the pool of deflaters used by the gzip encoder.</p>
+     * <p>If no pool is set, a pool of deflaters with the best compression level
+     * is used, since each resource is compressed only once.</p>
+     *
+     * @param deflaterPool the pool of deflaters used by the gzip encoder
+     */
+    public void setDeflaterPool(DeflaterPool deflaterPool)
+    {
+        if (isStarted())
+            throw new IllegalStateException(getState());
+        updateBean(_deflaterPool, deflaterPool);
+        _deflaterPool = deflaterPool;
+    }
+
+    /**
+     * <p>Adds an encoder for a compressed format, in addition to gzip.</p>
+     *
+     * @param encoder the encoder to add
+     */
+    public void addEncoder(Encoder encoder)
+    {
+        _encoders.add(encoder);
+    }
+
+    /**
+     * @return the formats of the compressed variants produced by this compressor, in order of preference
+     */
+    public CompressedContentFormat[] getFormats()
+    {
+        return _encoders.stream().map(Encoder::getFormat).toArray(CompressedContentFormat[]::new);
+    }
+
+    @ManagedAttribute("The min size of a compressed resource in bytes")
+    public int getMinCompressSize()
+    {
+        return _minCompressSize;
+    }
+
+    public void setMinCompressSize(int minCompressSize)
+    {
+        _minCompressSize = minCompressSize;
+    }
+
+    @ManagedAttribute("The max size of a compressed resource in bytes")
+    public int getMaxCompressSize()
+    {
+        return _maxCompressSize;
+    }
+
+    public void setMaxCompressSize(int maxCompressSize)
+    {
+        _maxCompressSize = maxCompressSize;
+    }
+
+    @ManagedAttribute("The mime types that are not compressed")
+    public String[] getExcludedMimeTypes()
+    {
+        return _mimeTypes.getExcluded().toArray(new String[0]);
+    }
+
+    /**
+     * @param types the mime types that are not compressed, replacing the default ones
+     */
+    public void setExcludedMimeTypes(String... types)
+    {
+        _mimeTypes.getExcluded().clear();
+        _mimeTypes.exclude(types);
+    }
+
+    @ManagedAttribute("The mime types that are compressed, or empty for all the mime types that are not excluded")
+    public String[] getIncludedMimeTypes()
+    {
+        return _mimeTypes.getIncluded().toArray(new String[0]);
+    }
+
+    /**
+     * @param types the mime types that are compressed
+     */
+    public void setIncludedMimeTypes(String... types)
+    {
+        _mimeTypes.getIncluded().clear();
+        _mimeTypes.include(types);
+    }
+
+    @ManagedAttribute("The number of resources being compressed")
+    public int getPendingCompressions()
+    {
+        return _pending.get();
+    }
+
+    @ManagedAttribute("The number of compressed resources")
+    public long getCompressions()
+    {
+        return _compressions.sum();
+    }
+
+    @ManagedAttribute("The number of resources that could not be compressed")
+    public long getFailures()
+    {
+        return _failures.sum();
+    }
+
+    @ManagedOperation(value = "Resets the statistics", impact = "ACTION")
+    public void resetStats()
+    {
+        _compressions.reset();
+        _failures.reset();
+    }
+
+    @Override
+    protected void doStart() throws Exception
+    {
+        if (_executor == null)
+        {
+            QueuedThreadPool executor = new QueuedThreadPool(1, 1);
+            executor.setName(String.format("compressor-%x", hashCode()));
+            executor.setThreadsPriority(Thread.MIN_PRIORITY);
+            executor.setReservedThreads(0);
+            setExecutor(executor);
+        }
+        if (_deflaterPool == null)
+            setDeflaterPool(new DeflaterPool(CompressionPool.DEFAULT_CAPACITY, Deflater.BEST_COMPRESSION, true));
+        super.doStart();
+    }
+
+    /**
+     * @param content the content to test
+     * @return whether the content should be compressed. The default implementation
+     * tests the content length, the content encoding and the mime type.
+     */
+    public boolean isCompressible(HttpContent content)
+    {
+        long length = content.getContentLengthValue();
+        if (length < _minCompressSize || length > _maxCompressSize)
+            return false;
+        if (content.getContentEncodingValue() != null)
+            return false;
+        String contentType = content.getContentTypeValue();
+        if (contentType == null)
+            return false;
+        return _mimeTypes.test(MimeTypes.getContentTypeWithoutCharset(contentType));
+    }
+
+    /**
+     * <p>Compresses the given resource in the background with each encoder.</p>
+     *
+     * @param resource the resource to compress
+     * @return a future completed with the compressed bytes of each format; formats
+     * for which the compressed bytes are not smaller than the resource are omitted
+     */
+    public CompletableFuture<Map<CompressedContentFormat, ByteBuffer>> compress(Resource resource)
+    {
+        CompletableFuture<Map<CompressedContentFormat, ByteBuffer>> result = new CompletableFuture<>();
+        if (!isRunning())
+        {
+            result.completeExceptionally(new IllegalStateException(getState()));
+            return result;
+        }
+
+        _pending.incrementAndGet();
+        try
+        {
+            _executor.execute(() ->
+            {
+                try
+                {
+                    Map<CompressedContentFormat, ByteBuffer> variants = encode(resource);
+                    _compressions.increment();
+                    result.complete(variants);
+                }
+                catch (Throwable x)
+                {
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Unable to compress {}", resource, x);
+                    _failures.increment();
+                    result.completeExceptionally(x);
+                }
+                finally
+                {
+                    _pending.decrementAndGet();
+                }
+            });
+        }
+        catch (RejectedExecutionException x)
+        {
+            _pending.decrementAndGet();
+            result.completeExceptionally(x);
+        }
+        return result;
+    }
+
+    private Map<CompressedContentFormat, ByteBuffer> encode(Resource resource) throws IOException
+    {
+        ByteBuffer content = BufferUtil.toBuffer(resource, false);
+        Map<CompressedContentFormat, ByteBuffer> variants = new HashMap<>();
+        for (Encoder encoder : _encoders)
+        {
+            ByteBuffer encoded = encoder.encode(content.slice());
+            if (LOG.isDebugEnabled())
+                LOG.debug("Compressed {} {}->{} with {}", resource, content.remaining(), encoded.remaining(), encoder.getFormat());
+            if (encoded.remaining() < content.remaining())
+                variants.put(encoder.getFormat(), encoded);
+        }
+        return variants;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{%s,pending=%d}", getClass().getSimpleName(), hashCode(), getState(), getPendingCompressions());
+    }
+
+    /**
+     * <p>An encoder of content for a {@link CompressedContentFormat}.</p>
+     */
+    public interface Encoder
+    {
+        /**
+         * @return the format produced by this encoder
+         */
+        CompressedContentFormat getFormat();
+
+        /**
+         * <p>Encodes the given content.</p>
+         * <p>This method is called by the compressor executor and may block.</p>
+         *
+         * @param content the content to encode
+         * @return a buffer with the encoded content
+         * @throws IOException if the content cannot be encoded
+         */
+        ByteBuffer encode(ByteBuffer content) throws IOException;
+    }
+
+    private class GzipEncoder implements Encoder
+    {
+        @Override
+        public CompressedContentFormat getFormat()
+        {
+            return CompressedContentFormat.GZIP;
+        }
+
+        @Override
+        public ByteBuffer encode(ByteBuffer content)
+        {
+            try (DeflaterPool.Entry entry = _deflaterPool.acquire())
+            {
+                Deflater deflater = entry.get();
+                CRC32 crc = new CRC32();
+                crc.update(content.slice());
+                deflater.setInput(content.slice());
+                deflater.finish();
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.remaining() / 2));
+                out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+                byte[] chunk = new byte[8192];
+                while (!deflater.finished())
+                {
+                    int length = deflater.deflate(chunk);
+                    out.write(chunk, 0, length);
+                }
+
+                // The gzip trailer is the CRC and the size of the content, little endian.
+                writeIntLittleEndian(out, (int)crc.getValue());
+                writeIntLittleEndian(out, content.remaining());
+                return ByteBuffer.wrap(out.toByteArray());
+            }
+        }
+
+        private void writeIntLittleEndian(ByteArrayOutputStream out, int value)
+        {
+            out.write(value);
+            out.write(value >>> 8);
+            out.write(value >>> 16);
+            out.write(value >>> 24);
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.EventListener;
 import java.util.List;
@@ -54,6 +55,7 @@ import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.HostPort;
 import org.eclipse.jetty.util.SharedBlockingCallback.Blocker;
 import org.eclipse.jetty.util.StringUtil;
+import org.eclipse.jetty.util.VirtualThreads;
 import org.eclipse.jetty.util.thread.Scheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -107,7 +109,11 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
         _state = new HttpChannelState(this);
         _request = new Request(this, newHttpInput(_state));
         _response = new Response(this, newHttpOutput());
-        _executor = connector.getServer().getThreadPool();
+        // Dispatches run application code that may block, so they
+        // use virtual threads if the thread pool is configured so.
+        Executor threadPool = connector.getServer().getThreadPool();
+        Executor virtualExecutor = VirtualThreads.getVirtualThreadsExecutor(threadPool);
+        _executor = virtualExecutor == null ? threadPool : virtualExecutor;
         _requestLog = connector.getServer().getRequestLog();
         _combinedListener = (connector instanceof AbstractConnector)
             ? ((AbstractConnector)connector).getHttpChannelListeners()
@@ -878,7 +884,7 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
     public void onRequest(MetaData.Request request)
     {
         _requests.incrementAndGet();
-        _request.setTimeStamp(System.currentTimeMillis());
+        _request.setTimeStamp(_connector.getServer().currentTimeMillis());
         HttpFields.Mutable fields = _response.getHttpFields();
         if (_configuration.getSendDateHeader() && !fields.contains(HttpHeader.DATE))
             fields.put(_connector.getServer().getDateField());
@@ -1130,6 +1136,38 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
             throw new IllegalStateException("Committed");
     }
 
+    /**
+     * @return whether response content can be sent with {@link #transferFrom(FileChannel, long, long, Callback)}
+     * @see HttpTransport#isFileTransferSupported()
+     */
+    boolean isFileTransferSupported()
+    {
+        return _transport.isFileTransferSupported();
+    }
+
+    /**
+     * <p>Sends a region of a file as content of the committed response.</p>
+     * <p>The file bytes are not notified to {@link Listener#onResponseContent(Request, ByteBuffer)}.</p>
+     *
+     * @param file the file to send the content from
+     * @param position the position in the file of the first byte to send
+     * @param count the number of bytes to send
+     * @param callback the callback notified when the transfer is complete
+     * @see HttpTransport#transferFrom(FileChannel, long, long, Callback)
+     */
+    void transferFrom(FileChannel file, long position, long count, Callback callback)
+    {
+        _transport.transferFrom(file, position, count, new Callback.Nested(callback)
+        {
+            @Override
+            public void succeeded()
+            {
+                _written += count;
+                super.succeeded();
+            }
+        });
+    }
+
     @Override
     public HttpOutput.Interceptor getNextInterceptor()
     {
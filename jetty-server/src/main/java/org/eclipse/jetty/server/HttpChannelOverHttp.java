@@ -16,6 +16,7 @@ package org.eclipse.jetty.server;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.jetty.http.BadMessageException;
@@ -182,7 +183,7 @@ public class HttpChannelOverHttp extends HttpChannel implements HttpParser.Reque
         {
             // Need to call onRequest, so RequestLog can reports as much as possible
             if (_metadata == null)
-                _metadata = _requestBuilder.build();
+                _metadata = _requestBuilder.build(getHttpConfiguration().isReuseRequestMetaData());
             onRequest(_metadata);
             markEarlyEOF();
         }
@@ -340,7 +341,7 @@ public class HttpChannelOverHttp extends HttpChannel implements HttpParser.Reque
     @Override
     public boolean headerComplete()
     {
-        _metadata = _requestBuilder.build();
+        _metadata = _requestBuilder.build(getHttpConfiguration().isReuseRequestMetaData());
         onRequest(_metadata);
 
         if (_complianceViolations != null && !_complianceViolations.isEmpty())
@@ -563,6 +564,17 @@ public class HttpChannelOverHttp extends HttpChannel implements HttpParser.Reque
         _trailers.add(field);
     }
 
+    @Override
+    public boolean handle()
+    {
+        boolean handled = super.handle();
+        // A suspended request may be referenced by other threads,
+        // so its metadata cannot be reused for the next request.
+        if (!handled)
+            _requestBuilder.escaped();
+        return handled;
+    }
+
     @Override
     public void recycle()
     {
@@ -648,6 +660,9 @@ public class HttpChannelOverHttp extends HttpChannel implements HttpParser.Reque
             return false;
         }
 
+        // The upgraded connection may retain the request metadata.
+        _requestBuilder.escaped();
+
         // Create new connection
         HttpFields.Mutable response101 = HttpFields.build();
         Connection upgradeConnection = factory.upgradeConnection(getConnector(), getEndPoint(), _metadata, response101);
@@ -701,10 +716,12 @@ public class HttpChannelOverHttp extends HttpChannel implements HttpParser.Reque
 
     private static class RequestBuilder
     {
-        private final HttpFields.Mutable _fieldsBuilder = HttpFields.build();
-        private final HttpURI.Mutable _uriBuilder = HttpURI.build();
+        private HttpFields.Mutable _fieldsBuilder = HttpFields.build();
+        private HttpURI.Mutable _uriBuilder = HttpURI.build();
         private String _method;
         private HttpVersion _version;
+        private ReusableRequest _reusable;
+        private boolean _escaped;
 
         public String method()
         {
@@ -713,6 +730,14 @@ public class HttpChannelOverHttp extends HttpChannel implements HttpParser.Reque
 
         public void request(String method, String uri, HttpVersion version)
         {
+            if (_escaped)
+            {
+                // Leave the previous request metadata to whoever may still reference it.
+                _escaped = false;
+                _fieldsBuilder = HttpFields.build();
+                _uriBuilder = HttpURI.build();
+                _reusable = null;
+            }
             _method = method;
             _uriBuilder.uri(method, uri);
             _version = version;
@@ -724,14 +749,93 @@ public class HttpChannelOverHttp extends HttpChannel implements HttpParser.Reque
             return _fieldsBuilder;
         }
 
-        public MetaData.Request build()
+        public MetaData.Request build(boolean reuse)
         {
-            return new MetaData.Request(_method, _uriBuilder, _version, _fieldsBuilder);
+            if (!reuse)
+                return new MetaData.Request(_method, _uriBuilder, _version, _fieldsBuilder);
+            if (_reusable == null)
+                _reusable = new ReusableRequest(_uriBuilder, _fieldsBuilder);
+            _reusable.reset(_method, _version);
+            return _reusable;
         }
 
         public HttpVersion version()
         {
             return _version;
         }
+
+        public void escaped()
+        {
+            _escaped = true;
+        }
+    }
+
+    /**
+     * <p>A request metadata that is a view of the URI and fields builders,
+     * so that it can be reset and reused for the next request.</p>
+     */
+    private static class ReusableRequest extends MetaData.Request
+    {
+        private final HttpURI.Mutable _uri;
+        private final HttpFields.Mutable _fields;
+        private String _method;
+        private HttpVersion _version;
+        private long _contentLength;
+
+        private ReusableRequest(HttpURI.Mutable uri, HttpFields.Mutable fields)
+        {
+            super(null, null, null, null, Long.MIN_VALUE, null);
+            _uri = uri;
+            _fields = fields;
+        }
+
+        private void reset(String method, HttpVersion version)
+        {
+            _method = method;
+            _version = version;
+            _contentLength = _fields.getLongField(HttpHeader.CONTENT_LENGTH);
+        }
+
+        @Override
+        public String getMethod()
+        {
+            return _method;
+        }
+
+        @Override
+        public HttpURI getURI()
+        {
+            return _uri;
+        }
+
+        @Override
+        public String getURIString()
+        {
+            return _uri.toString();
+        }
+
+        @Override
+        public HttpVersion getHttpVersion()
+        {
+            return _version;
+        }
+
+        @Override
+        public HttpFields getFields()
+        {
+            return _fields;
+        }
+
+        @Override
+        public long getContentLength()
+        {
+            return _contentLength;
+        }
+
+        @Override
+        public Iterator<HttpField> iterator()
+        {
+            return _fields.iterator();
+        }
     }
 }
@@ -54,6 +54,7 @@ public class HttpConfiguration implements Dumpable
         .build();
     private int _outputBufferSize = 32 * 1024;
     private int _outputAggregationSize = _outputBufferSize / 4;
+    private long _outputAggregationDelay = 0;
     private int _requestHeaderSize = 8 * 1024;
     private int _responseHeaderSize = 8 * 1024;
     private int _headerCacheSize = 1024;
@@ -65,10 +66,12 @@ public class HttpConfiguration implements Dumpable
     private boolean _sendXPoweredBy = false;
     private boolean _sendDateHeader = true;
     private boolean _delayDispatchUntilContent = true;
+    private boolean _reuseRequestMetaData = false;
     private boolean _persistentConnectionsEnabled = true;
     private int _maxErrorDispatches = 10;
     private boolean _useInputDirectByteBuffers = true;
     private boolean _useOutputDirectByteBuffers = true;
+    private boolean _useFileTransfer = false;
     private long _minRequestDataRate;
     private long _minResponseDataRate;
     private HttpCompliance _httpCompliance = HttpCompliance.RFC7230;
@@ -127,6 +130,7 @@ public class HttpConfiguration implements Dumpable
         }
         _outputBufferSize = config._outputBufferSize;
         _outputAggregationSize = config._outputAggregationSize;
+        _outputAggregationDelay = config._outputAggregationDelay;
         _requestHeaderSize = config._requestHeaderSize;
         _responseHeaderSize = config._responseHeaderSize;
         _headerCacheSize = config._headerCacheSize;
@@ -138,10 +142,12 @@ public class HttpConfiguration implements Dumpable
         _sendServerVersion = config._sendServerVersion;
         _sendXPoweredBy = config._sendXPoweredBy;
         _delayDispatchUntilContent = config._delayDispatchUntilContent;
+        _reuseRequestMetaData = config._reuseRequestMetaData;
         _persistentConnectionsEnabled = config._persistentConnectionsEnabled;
         _maxErrorDispatches = config._maxErrorDispatches;
         _useInputDirectByteBuffers = config._useInputDirectByteBuffers;
         _useOutputDirectByteBuffers = config._useOutputDirectByteBuffers;
+        _useFileTransfer = config._useFileTransfer;
         _minRequestDataRate = config._minRequestDataRate;
         _minResponseDataRate = config._minResponseDataRate;
         _httpCompliance = config._httpCompliance;
@@ -194,6 +200,12 @@ public class HttpConfiguration implements Dumpable
         return _outputAggregationSize;
     }
 
+    @ManagedAttribute("The maximum delay in milliseconds for small chunked HTTP/1.1 writes to be coalesced")
+    public long getOutputAggregationDelay()
+    {
+        return _outputAggregationDelay;
+    }
+
     @ManagedAttribute("The maximum allowed size in bytes for the HTTP request line and HTTP request headers")
     public int getRequestHeaderSize()
     {
@@ -337,6 +349,33 @@ public class HttpConfiguration implements Dumpable
         return _delayDispatchUntilContent;
     }
 
+    /**
+     * <p>Sets whether HTTP/1 connections reuse the request metadata (method, URI and fields)
+     * of a completed request for the next request on the same connection, rather than
+     * allocating immutable copies for each request.</p>
+     * <p>The metadata of a request that is handled asynchronously, or that upgrades the
+     * connection, is not reused, but applications must not retain references to a request
+     * after it has completed.</p>
+     * <p>When enabled, {@link Request#getHttpFields()}, and {@link Request#getHttpURI()} for
+     * requests in absolute form, return views of the connection builders rather than immutable
+     * snapshots. Components that retain them beyond the completion of the request, for example
+     * {@link HttpChannel.Listener} implementations, must copy them with {@code asImmutable()},
+     * since such references are not detected and are overwritten by the next request.</p>
+     * <p>The URI of requests in origin form is still copied when the request is prepared.</p>
+     *
+     * @param reuse if true, reuses the request metadata across requests (defaults to false)
+     */
+    public void setReuseRequestMetaData(boolean reuse)
+    {
+        _reuseRequestMetaData = reuse;
+    }
+
+    @ManagedAttribute("Whether to reuse the request metadata across the requests of HTTP/1 connections")
+    public boolean isReuseRequestMetaData()
+    {
+        return _reuseRequestMetaData;
+    }
+
     /**
      * @param useInputDirectByteBuffers whether to use direct ByteBuffers for reading
      */
@@ -365,6 +404,27 @@ public class HttpConfiguration implements Dumpable
         return _useOutputDirectByteBuffers;
     }
 
+    /**
+     * <p>Sets whether static file content may be written with
+     * {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+     * so that the kernel copies the file directly to the socket.</p>
+     * <p>The transfer is only used when the connection's {@link org.eclipse.jetty.io.EndPoint}
+     * supports it (for example cleartext HTTP/1.1), the content length is known and
+     * the response output is not intercepted (for example by gzip).</p>
+     *
+     * @param useFileTransfer whether to use zero-copy file transfers for static content
+     */
+    public void setUseFileTransfer(boolean useFileTransfer)
+    {
+        _useFileTransfer = useFileTransfer;
+    }
+
+    @ManagedAttribute("Whether to use zero-copy file transfers for static content")
+    public boolean isUseFileTransfer()
+    {
+        return _useFileTransfer;
+    }
+
     /**
      * <p>Sets the {@link Customizer}s that are invoked for every
      * request received.</p>
@@ -406,6 +466,23 @@ public class HttpConfiguration implements Dumpable
         _outputAggregationSize = outputAggregationSize;
     }
 
+    /**
+     * <p>Sets the maximum delay for which small writes of a committed, chunked HTTP/1.1 response
+     * may be held back so that they can be coalesced with subsequent writes into a single chunk.</p>
+     * <p>Writes (including those triggered by an explicit flush) that are no larger than the
+     * {@link #getOutputAggregationSize() output aggregation size} are copied and completed
+     * immediately, and are sent either together with the next larger or last write, or once the
+     * delay expires, whichever happens first. This reduces the chunk framing overhead and the number
+     * of write system calls for applications that stream many small writes, at the cost of up to
+     * this delay of added latency for each write.</p>
+     *
+     * @param delay the maximum delay in milliseconds, or 0 (the default) to send every write immediately
+     */
+    public void setOutputAggregationDelay(long delay)
+    {
+        _outputAggregationDelay = delay;
+    }
+
     /**
      * <p>Sets the maximum allowed size in bytes for the HTTP request line and HTTP request headers.</p>
      *
@@ -752,6 +829,7 @@ public class HttpConfiguration implements Dumpable
             new DumpableCollection("formEncodedMethods", _formEncodedMethods.keySet()),
             "outputBufferSize=" + _outputBufferSize,
             "outputAggregationSize=" + _outputAggregationSize,
+            "outputAggregationDelay=" + _outputAggregationDelay,
             "requestHeaderSize=" + _requestHeaderSize,
             "responseHeaderSize=" + _responseHeaderSize,
             "headerCacheSize=" + _headerCacheSize,
@@ -762,8 +840,10 @@ public class HttpConfiguration implements Dumpable
             "sendServerVersion=" + _sendServerVersion,
             "sendXPoweredBy=" + _sendXPoweredBy,
             "delayDispatchUntilContent=" + _delayDispatchUntilContent,
+            "reuseRequestMetaData=" + _reuseRequestMetaData,
             "persistentConnectionsEnabled=" + _persistentConnectionsEnabled,
             "maxErrorDispatches=" + _maxErrorDispatches,
+            "useFileTransfer=" + _useFileTransfer,
             "minRequestDataRate=" + _minRequestDataRate,
             "minResponseDataRate=" + _minResponseDataRate,
             "requestCookieCompliance=" + _requestCookieCompliance,
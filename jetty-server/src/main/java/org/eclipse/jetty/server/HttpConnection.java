@@ -15,8 +15,10 @@ package org.eclipse.jetty.server;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritePendingException;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.jetty.http.BadMessageException;
@@ -40,6 +42,8 @@ import org.eclipse.jetty.io.WriteFlusher;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.IteratingCallback;
+import org.eclipse.jetty.util.thread.AutoLock;
+import org.eclipse.jetty.util.thread.Scheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,6 +69,7 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
     private volatile RetainableByteBuffer _retainableByteBuffer;
     private final AsyncReadCallback _asyncReadCallback = new AsyncReadCallback();
     private final SendCallback _sendCallback = new SendCallback();
+    private final ChunkAggregator _chunkAggregator;
     private final boolean _recordHttpComplianceViolations;
     private final LongAdder bytesIn = new LongAdder();
     private final LongAdder bytesOut = new LongAdder();
@@ -103,6 +108,8 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         _input = _channel.getRequest().getHttpInput();
         _parser = newHttpParser(config.getHttpCompliance());
         _recordHttpComplianceViolations = recordComplianceViolations;
+        long aggregationDelay = config.getOutputAggregationDelay();
+        _chunkAggregator = aggregationDelay > 0 ? new ChunkAggregator(aggregationDelay) : null;
         if (LOG.isDebugEnabled())
             LOG.debug("New HTTP Connection {}", this);
     }
@@ -547,6 +554,8 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
     @Override
     public void onClose(Throwable cause)
     {
+        if (_chunkAggregator != null)
+            _chunkAggregator.close();
         if (cause == null)
             _sendCallback.close();
         else
@@ -579,6 +588,14 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
                 _generator.setPersistent(false);
         }
 
+        if (_chunkAggregator != null)
+            _chunkAggregator.send(request, response, content, lastContent, callback);
+        else
+            generate(request, response, content, lastContent, callback);
+    }
+
+    private void generate(MetaData.Request request, MetaData.Response response, ByteBuffer content, boolean lastContent, Callback callback)
+    {
         if (_sendCallback.reset(request, response, content, lastContent, callback))
         {
             _sendCallback.iterate();
@@ -606,6 +623,28 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         return false;
     }
 
+    @Override
+    public boolean isFileTransferSupported()
+    {
+        return getHttpConfiguration().isUseFileTransfer() && getEndPoint().isFileTransferSupported();
+    }
+
+    @Override
+    public void transferFrom(FileChannel file, long position, long count, Callback callback)
+    {
+        if (LOG.isDebugEnabled())
+            LOG.debug("transferFrom {} {}+{} {}", file, position, count, this);
+        try
+        {
+            bytesOut.add(count);
+            getEndPoint().transferFrom(callback, file, position, count);
+        }
+        catch (Throwable x)
+        {
+            callback.failed(x);
+        }
+    }
+
     @Override
     public void push(org.eclipse.jetty.http.MetaData.Request request)
     {
@@ -687,6 +726,186 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         }
     }
 
+    /**
+     * <p>Coalesces small writes of a committed chunked response into a single chunk.</p>
+     * <p>Small writes are copied into an aggregate buffer and their callbacks are completed
+     * immediately. The aggregate is sent either before (or together with) the next write that
+     * cannot be aggregated, or once the {@link HttpConfiguration#getOutputAggregationDelay()
+     * aggregation delay} expires, whichever happens first.</p>
+     */
+    private class ChunkAggregator implements Runnable
+    {
+        private final AutoLock _lock = new AutoLock();
+        private final long _delay;
+        private MetaData.Request _request;
+        private ByteBuffer _aggregate;
+        private Scheduler.Task _task;
+        private boolean _flushing;
+        private Throwable _failure;
+        private Runnable _pending;
+
+        private ChunkAggregator(long delay)
+        {
+            _delay = delay;
+        }
+
+        private void send(MetaData.Request request, MetaData.Response response, ByteBuffer content, boolean lastContent, Callback callback)
+        {
+            Throwable failure;
+            boolean aggregated = false;
+            ByteBuffer aggregate = null;
+            boolean merged = false;
+            try (AutoLock l = _lock.lock())
+            {
+                failure = _failure;
+                if (failure == null)
+                {
+                    if (_flushing)
+                    {
+                        // A delayed flush is in progress, so send once it has completed.
+                        _pending = () -> send(request, response, content, lastContent, callback);
+                        return;
+                    }
+
+                    int length = BufferUtil.length(content);
+                    boolean small = response == null && _generator.isChunking() && length <= _config.getOutputAggregationSize();
+                    if (small && !lastContent)
+                    {
+                        if (_aggregate == null)
+                            _aggregate = _bufferPool.acquire(_config.getOutputAggregationSize(), isUseOutputDirectByteBuffers());
+                        if (length <= BufferUtil.space(_aggregate))
+                        {
+                            BufferUtil.append(_aggregate, content);
+                            _request = request;
+                            if (_task == null)
+                                _task = getConnector().getScheduler().schedule(this, _delay, TimeUnit.MILLISECONDS);
+                            aggregated = true;
+                        }
+                    }
+
+                    if (!aggregated)
+                    {
+                        cancel();
+                        if (BufferUtil.hasContent(_aggregate))
+                        {
+                            _flushing = true;
+                            aggregate = _aggregate;
+                            if (lastContent && small && length <= BufferUtil.space(_aggregate))
+                            {
+                                BufferUtil.append(_aggregate, content);
+                                merged = true;
+                            }
+                        }
+                        else if (lastContent)
+                        {
+                            release();
+                        }
+                    }
+                }
+            }
+
+            if (LOG.isDebugEnabled())
+                LOG.debug("aggregate {} last={} aggregated={} flush={} merged={} {}",
+                    BufferUtil.toDetailString(content), lastContent, aggregated, BufferUtil.toDetailString(aggregate), merged, this);
+
+            if (failure != null)
+                callback.failed(failure);
+            else if (aggregated)
+                callback.succeeded();
+            else if (aggregate == null)
+                generate(request, response, content, lastContent, callback);
+            else if (merged)
+                generate(request, null, aggregate, true, Callback.from(() ->
+                {
+                    flushed(null, true);
+                    callback.succeeded();
+                }, x ->
+                {
+                    flushed(x, true);
+                    callback.failed(x);
+                }));
+            else
+                generate(request, null, aggregate, false, Callback.from(() ->
+                {
+                    flushed(null, lastContent);
+                    generate(request, response, content, lastContent, callback);
+                }, x ->
+                {
+                    flushed(x, lastContent);
+                    callback.failed(x);
+                }));
+        }
+
+        @Override
+        public void run()
+        {
+            MetaData.Request request;
+            ByteBuffer aggregate;
+            try (AutoLock l = _lock.lock())
+            {
+                _task = null;
+                if (_flushing || BufferUtil.isEmpty(_aggregate))
+                    return;
+                _flushing = true;
+                request = _request;
+                aggregate = _aggregate;
+            }
+
+            if (LOG.isDebugEnabled())
+                LOG.debug("delayed flush {} {}", BufferUtil.toDetailString(aggregate), this);
+
+            // There is no application callback to notify of a failure,
+            // so it is remembered and reported to the next write.
+            generate(request, null, aggregate, false, Callback.from(() -> flushed(null, false), x -> flushed(x, false)));
+        }
+
+        private void flushed(Throwable failure, boolean last)
+        {
+            Runnable pending;
+            try (AutoLock l = _lock.lock())
+            {
+                _flushing = false;
+                BufferUtil.clear(_aggregate);
+                if (failure != null && _failure == null)
+                    _failure = failure;
+                if (last || failure != null)
+                    release();
+                pending = _pending;
+                _pending = null;
+            }
+
+            if (pending != null)
+                getExecutor().execute(pending);
+        }
+
+        private void close()
+        {
+            try (AutoLock l = _lock.lock())
+            {
+                cancel();
+                if (!_flushing)
+                    release();
+            }
+        }
+
+        private void cancel()
+        {
+            assert _lock.isHeldByCurrentThread();
+            if (_task != null)
+                _task.cancel();
+            _task = null;
+        }
+
+        private void release()
+        {
+            assert _lock.isHeldByCurrentThread();
+            if (_aggregate != null)
+                _bufferPool.release(_aggregate);
+            _aggregate = null;
+            _request = null;
+        }
+    }
+
     private class SendCallback extends IteratingCallback
     {
         private MetaData.Response _info;
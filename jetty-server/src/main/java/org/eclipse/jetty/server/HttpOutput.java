@@ -13,18 +13,25 @@
 
 package org.eclipse.jetty.server;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritePendingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
@@ -41,6 +48,7 @@ import org.eclipse.jetty.util.IteratingCallback;
 import org.eclipse.jetty.util.NanoTime;
 import org.eclipse.jetty.util.SharedBlockingCallback;
 import org.eclipse.jetty.util.SharedBlockingCallback.Blocker;
+import org.eclipse.jetty.util.resource.Resource;
 import org.eclipse.jetty.util.thread.AutoLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -1250,6 +1258,26 @@ public class HttpOutput extends ServletOutputStream implements Runnable
             new ReadableByteChannelWritingCB(in, callback).iterate();
     }
 
+    /**
+     * <p>Asynchronous send of channel content, where the channel is read by the given executor.</p>
+     * <p>The calling thread never blocks reading the channel: each chunk is read by a task
+     * submitted to the executor, and the next chunk is read while the previous one is written.
+     * The channel will be closed after reading all content.</p>
+     * <p>If the executor rejects a task, the send fails with the {@link RejectedExecutionException}.</p>
+     *
+     * @param in The channel content to send
+     * @param readExecutor The executor used to read the channel
+     * @param callback The callback to use to notify success or failure
+     */
+    public void sendContent(ReadableByteChannel in, Executor readExecutor, Callback callback)
+    {
+        if (LOG.isDebugEnabled())
+            LOG.debug("sendContent(channel={},{},{})", in, readExecutor, callback);
+
+        if (prepareSendContent(0, callback))
+            new ExecutorReadableByteChannelWritingCB(in, readExecutor, callback).iterate();
+    }
+
     private boolean prepareSendContent(int len, Callback callback)
     {
         try (AutoLock l = _channelState.lock())
@@ -1303,6 +1331,51 @@ public class HttpOutput extends ServletOutputStream implements Runnable
         if (LOG.isDebugEnabled())
             LOG.debug("sendContent(http={},{})", httpContent, callback);
 
+        sendHttpContent(httpContent, null, callback);
+    }
+
+    /**
+     * <p>Asynchronous send of HTTP content, where the content is loaded by the given executor.</p>
+     * <p>The content buffers or channel are obtained by a task submitted to the executor,
+     * and a channel is read as per {@link #sendContent(ReadableByteChannel, Executor, Callback)},
+     * so that the calling thread is never blocked by file I/O.</p>
+     * <p>If the executor rejects a task, or the content cannot be loaded, the callback is failed.</p>
+     *
+     * @param httpContent The HTTP content to send
+     * @param readExecutor The executor used to load the content
+     * @param callback The callback to use to notify success or failure
+     */
+    public void sendContent(HttpContent httpContent, Executor readExecutor, Callback callback)
+    {
+        if (LOG.isDebugEnabled())
+            LOG.debug("sendContent(http={},{},{})", httpContent, readExecutor, callback);
+
+        try
+        {
+            readExecutor.execute(() ->
+            {
+                try
+                {
+                    sendHttpContent(httpContent, readExecutor, callback);
+                }
+                catch (Throwable x)
+                {
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Unable to load content {}", httpContent, x);
+                    callback.failed(x);
+                }
+            });
+        }
+        catch (RejectedExecutionException x)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Unable to load content {}", httpContent, x);
+            callback.failed(x);
+        }
+    }
+
+    private void sendHttpContent(HttpContent httpContent, Executor readExecutor, Callback callback)
+    {
         ByteBuffer buffer = _channel.isUseOutputDirectByteBuffers() ? httpContent.getDirectBuffer() : null;
         if (buffer == null)
             buffer = httpContent.getIndirectBuffer();
@@ -1313,6 +1386,15 @@ public class HttpOutput extends ServletOutputStream implements Runnable
             return;
         }
 
+        long length = httpContent.getContentLengthValue();
+        FileChannel file = newTransferChannel(httpContent, length);
+        if (file != null)
+        {
+            // Close of the file is done by the transfer
+            transferContent(file, 0, length, callback);
+            return;
+        }
+
         ReadableByteChannel rbc = null;
         try
         {
@@ -1326,7 +1408,10 @@ public class HttpOutput extends ServletOutputStream implements Runnable
         if (rbc != null)
         {
             // Close of the rbc is done by the async sendContent
-            sendContent(rbc, callback);
+            if (readExecutor == null)
+                sendContent(rbc, callback);
+            else
+                sendContent(rbc, readExecutor, callback);
             return;
         }
 
@@ -1351,6 +1436,76 @@ public class HttpOutput extends ServletOutputStream implements Runnable
         callback.failed(cause);
     }
 
+    /**
+     * <p>Blocking send of a range of HTTP content with a zero-copy file transfer.</p>
+     * <p>The transfer is only possible if it is enabled with
+     * {@link HttpConfiguration#setUseFileTransfer(boolean)} and supported by the transport,
+     * if the content is a file, if the response content length is {@code count} and
+     * if the output is not intercepted.</p>
+     *
+     * @param httpContent The HTTP content to send a range of
+     * @param position The position in the content of the first byte to send
+     * @param count The number of bytes to send
+     * @return true if the range was sent, false if the transfer is not possible,
+     * in which case nothing was sent
+     * @throws IOException if the send fails
+     */
+    public boolean transferContent(HttpContent httpContent, long position, long count) throws IOException
+    {
+        FileChannel file = newTransferChannel(httpContent, count);
+        if (file == null)
+            return false;
+
+        if (LOG.isDebugEnabled())
+            LOG.debug("transferContent(http={},{},{})", httpContent, position, count);
+
+        try (Blocker blocker = _writeBlocker.acquire())
+        {
+            transferContent(file, position, count, blocker);
+            blocker.block();
+        }
+        return true;
+    }
+
+    private void transferContent(FileChannel file, long position, long count, Callback callback)
+    {
+        boolean prepared = false;
+        try
+        {
+            prepared = prepareSendContent(0, callback);
+        }
+        finally
+        {
+            if (!prepared)
+                IO.close(file);
+        }
+        if (prepared)
+            new FileTransferCB(file, position, count, callback).iterate();
+    }
+
+    private FileChannel newTransferChannel(HttpContent httpContent, long count)
+    {
+        if (count <= 0 || _interceptor != _channel || !_channel.isFileTransferSupported())
+            return null;
+        if (_channel.getRequest().isHead() || _channel.getResponse().getContentLength() != count)
+            return null;
+
+        try
+        {
+            Resource resource = httpContent.getResource();
+            File file = resource == null ? null : resource.getFile();
+            if (file == null)
+                return null;
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+        catch (Throwable x)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Unable to transfer content {}", httpContent, x);
+            return null;
+        }
+    }
+
     public int getBufferSize()
     {
         return _bufferSize;
@@ -1868,6 +2023,218 @@ public class HttpOutput extends ServletOutputStream implements Runnable
         }
     }
 
+    /**
+     * <p>An iterating callback that commits the response, transfers a region of a file
+     * with {@link HttpChannel#transferFrom(FileChannel, long, long, Callback)} and then
+     * completes the response.</p>
+     * <p>The file is closed once the transfer is done.</p>
+     */
+    private class FileTransferCB extends NestedChannelWriteCB
+    {
+        private final FileChannel _file;
+        private final long _position;
+        private final long _count;
+        private boolean _committed;
+        private boolean _transferred;
+        private boolean _completed;
+
+        private FileTransferCB(FileChannel file, long position, long count, Callback callback)
+        {
+            super(callback, true);
+            _file = file;
+            _position = position;
+            _count = count;
+        }
+
+        @Override
+        protected Action process() throws Exception
+        {
+            if (!_committed)
+            {
+                _committed = true;
+                channelWrite(BufferUtil.EMPTY_BUFFER, false, this);
+                return Action.SCHEDULED;
+            }
+
+            if (!_transferred)
+            {
+                _transferred = true;
+                _written += _count;
+                _channel.transferFrom(_file, _position, _count, this);
+                return Action.SCHEDULED;
+            }
+
+            if (!_completed)
+            {
+                _completed = true;
+                IO.close(_file);
+                channelWrite(BufferUtil.EMPTY_BUFFER, true, this);
+                return Action.SCHEDULED;
+            }
+
+            return Action.SUCCEEDED;
+        }
+
+        @Override
+        public void onCompleteFailure(Throwable x)
+        {
+            IO.close(_file);
+            super.onCompleteFailure(x);
+        }
+    }
+
+    /**
+     * <p>An iterating callback that reads a channel with an executor into two buffers,
+     * so that the next chunk is read while the previous one is written.</p>
+     * <p>Each iteration writes the chunk previously read and, unless EOF has been reached,
+     * concurrently reads the next chunk in the other buffer; the iteration succeeds once
+     * both the write and the read are complete.</p>
+     */
+    private class ExecutorReadableByteChannelWritingCB extends NestedChannelWriteCB
+    {
+        private final ReadableByteChannel _in;
+        private final Executor _executor;
+        private final ByteBuffer[] _buffers = new ByteBuffer[2];
+        private final AtomicInteger _pending = new AtomicInteger();
+        private final AtomicReference<Throwable> _failure = new AtomicReference<>();
+        private final Callback _join = new Callback()
+        {
+            @Override
+            public void succeeded()
+            {
+                if (_pending.decrementAndGet() == 0)
+                    complete();
+            }
+
+            @Override
+            public void failed(Throwable x)
+            {
+                _failure.compareAndSet(null, x);
+                if (_pending.decrementAndGet() == 0)
+                    complete();
+            }
+
+            @Override
+            public InvocationType getInvocationType()
+            {
+                return InvocationType.NON_BLOCKING;
+            }
+        };
+        private int _index = -1;
+        private boolean _eof;
+        private boolean _last;
+        private boolean _closed;
+
+        private ExecutorReadableByteChannelWritingCB(ReadableByteChannel in, Executor executor, Callback callback)
+        {
+            super(callback, true);
+            _in = in;
+            _executor = executor;
+            ByteBufferPool pool = _channel.getByteBufferPool();
+            _buffers[0] = pool.acquire(getBufferSize(), _channel.isUseOutputDirectByteBuffers());
+            _buffers[1] = pool.acquire(getBufferSize(), _channel.isUseOutputDirectByteBuffers());
+        }
+
+        @Override
+        protected Action process() throws Exception
+        {
+            if (_last)
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("EOF of {}", this);
+                closeInput();
+                return Action.SUCCEEDED;
+            }
+
+            if (_index < 0)
+            {
+                // Read the first chunk.
+                _index = 0;
+                _pending.set(1);
+                read(_buffers[0]);
+                return Action.SCHEDULED;
+            }
+
+            // The pending read and write have completed, so _eof
+            // and the buffer are visible via the _pending counter.
+            ByteBuffer buffer = _buffers[_index];
+            _written += buffer.remaining();
+            if (_eof)
+            {
+                _last = true;
+                _pending.set(1);
+            }
+            else
+            {
+                _index = 1 - _index;
+                _pending.set(2);
+                read(_buffers[_index]);
+            }
+            channelWrite(buffer, _last, _join);
+            return Action.SCHEDULED;
+        }
+
+        private void read(ByteBuffer buffer)
+        {
+            Runnable task = () ->
+            {
+                try
+                {
+                    // Read from the channel until buffer full or EOF.
+                    BufferUtil.clearToFill(buffer);
+                    while (buffer.hasRemaining() && !_eof)
+                    {
+                        _eof = _in.read(buffer) < 0;
+                    }
+                    BufferUtil.flipToFlush(buffer, 0);
+                    _join.succeeded();
+                }
+                catch (Throwable x)
+                {
+                    _join.failed(x);
+                }
+            };
+
+            try
+            {
+                _executor.execute(task);
+            }
+            catch (RejectedExecutionException x)
+            {
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Unable to read {}", this, x);
+                _join.failed(x);
+            }
+        }
+
+        private void complete()
+        {
+            Throwable failure = _failure.getAndSet(null);
+            if (failure == null)
+                succeeded();
+            else
+                failed(failure);
+        }
+
+        private void closeInput()
+        {
+            if (!_closed)
+            {
+                _closed = true;
+                _channel.getByteBufferPool().release(_buffers[0]);
+                _channel.getByteBufferPool().release(_buffers[1]);
+                IO.close(_in);
+            }
+        }
+
+        @Override
+        public void onCompleteFailure(Throwable x)
+        {
+            closeInput();
+            super.onCompleteFailure(x);
+        }
+    }
+
     private static class WriteBlocker extends SharedBlockingCallback
     {
         private final HttpChannel _channel;
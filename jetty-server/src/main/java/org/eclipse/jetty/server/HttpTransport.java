@@ -14,6 +14,7 @@
 package org.eclipse.jetty.server;
 
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import org.eclipse.jetty.http.MetaData;
 import org.eclipse.jetty.util.Callback;
@@ -37,6 +38,31 @@ public interface HttpTransport
      */
     void send(MetaData.Request request, MetaData.Response response, ByteBuffer content, boolean lastContent, Callback callback);
 
+    /**
+     * @return true if file content can be sent with {@link #transferFrom(FileChannel, long, long, Callback)}
+     */
+    default boolean isFileTransferSupported()
+    {
+        return false;
+    }
+
+    /**
+     * <p>Asynchronous call to send a region of a file as content of the current response.</p>
+     * <p>The response must have been committed with a known content length, and the
+     * file bytes are sent as they are, without any encoding by the transport.
+     * The last content must still be sent with {@link #send(MetaData.Request, MetaData.Response, ByteBuffer, boolean, Callback)}.</p>
+     *
+     * @param file the file to send the content from
+     * @param position the position in the file of the first byte to send
+     * @param count the number of bytes to send
+     * @param callback The Callback instance that success or failure of the transfer is notified on
+     * @see #isFileTransferSupported()
+     */
+    default void transferFrom(FileChannel file, long position, long count, Callback callback)
+    {
+        callback.failed(new UnsupportedOperationException());
+    }
+
     /**
      * @return true if responses can be pushed over this transport
      */
@@ -42,6 +42,12 @@ import org.slf4j.LoggerFactory;
  * {@link Runtime} instance has {@link Runtime#totalMemory()} minus {@link Runtime#freeMemory()}
  * greater than {@link #getMaxMemory()}</li>
  * </ul>
+ * <p>When the thread pool is configured to use virtual threads (see
+ * {@link org.eclipse.jetty.util.VirtualThreads.Configurable}), blocking tasks such as
+ * request handling do not use pool threads, so {@link ThreadPool#isLowOnThreads()}
+ * only detects the exhaustion of threads for non-blocking tasks; the number of
+ * concurrent requests is then better bounded via {@link MaxConnectionsLowResourceCheck}
+ * and {@link #setMaxMemory(long)}.</p>
  */
 @ManagedObject("Monitor for low resource conditions and activate a low resource mode if detected")
 public class LowResourceMonitor extends ContainerLifeCycle
@@ -14,6 +14,7 @@
 package org.eclipse.jetty.server;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.InvalidPathException;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +37,7 @@ public class ResourceContentFactory implements ContentFactory
     private final ResourceFactory _factory;
     private final MimeTypes _mimeTypes;
     private final CompressedContentFormat[] _precompressedFormats;
+    private SharedContentStore _contentStore;
 
     public ResourceContentFactory(ResourceFactory factory, MimeTypes mimeTypes, CompressedContentFormat[] precompressedFormats)
     {
@@ -44,6 +46,22 @@ public class ResourceContentFactory implements ContentFactory
         _precompressedFormats = precompressedFormats;
     }
 
+    /**
+     * @return the store the direct buffers are obtained from, or null
+     */
+    public SharedContentStore getContentStore()
+    {
+        return _contentStore;
+    }
+
+    /**
+     * @param contentStore the store the direct buffers are obtained from, or null to read them for each content
+     */
+    public void setContentStore(SharedContentStore contentStore)
+    {
+        _contentStore = contentStore;
+    }
+
     @Override
     public HttpContent getContent(String pathInContext, int maxBufferSize) throws IOException
     {
@@ -90,12 +108,20 @@ public class ResourceContentFactory implements ContentFactory
                 if (compressedResource != null && compressedResource.exists() && compressedResource.lastModified() >= resource.lastModified() &&
                     compressedResource.length() < resource.length())
                     compressedContents.put(format,
-                        new ResourceHttpContent(compressedResource, _mimeTypes.getMimeByExtension(compressedPathInContext), maxBufferSize));
+                        newResourceHttpContent(compressedResource, _mimeTypes.getMimeByExtension(compressedPathInContext), maxBufferSize, null));
             }
             if (!compressedContents.isEmpty())
-                return new ResourceHttpContent(resource, mt, maxBufferSize, compressedContents);
+                return newResourceHttpContent(resource, mt, maxBufferSize, compressedContents);
         }
-        return new ResourceHttpContent(resource, mt, maxBufferSize);
+        return newResourceHttpContent(resource, mt, maxBufferSize, null);
+    }
+
+    private ResourceHttpContent newResourceHttpContent(Resource resource, String contentType, int maxBufferSize, Map<CompressedContentFormat, HttpContent> precompressedContents)
+    {
+        SharedContentStore contentStore = _contentStore;
+        if (contentStore == null)
+            return new ResourceHttpContent(resource, contentType, maxBufferSize, precompressedContents);
+        return new StoredHttpContent(contentStore, resource, contentType, maxBufferSize, precompressedContents);
     }
 
     @Override
@@ -103,4 +129,37 @@ public class ResourceContentFactory implements ContentFactory
     {
         return "ResourceContentFactory[" + _factory + "]@" + hashCode();
     }
+
+    private static class StoredHttpContent extends ResourceHttpContent
+    {
+        private final SharedContentStore _contentStore;
+        private final int _maxBufferSize;
+        private String _storeKey;
+
+        private StoredHttpContent(SharedContentStore contentStore, Resource resource, String contentType, int maxBufferSize, Map<CompressedContentFormat, HttpContent> precompressedContents)
+        {
+            super(resource, contentType, maxBufferSize, precompressedContents);
+            _contentStore = contentStore;
+            _maxBufferSize = maxBufferSize;
+        }
+
+        @Override
+        public ByteBuffer getDirectBuffer()
+        {
+            // Content larger than the max buffer size is streamed, as it is without a store.
+            Resource resource = getResource();
+            long length = resource.length();
+            if (length <= 0 || _maxBufferSize > 0 && length > _maxBufferSize)
+                return null;
+
+            String key = _storeKey;
+            if (key == null)
+            {
+                key = _contentStore.getKey(resource);
+                _storeKey = key == null ? "" : key;
+            }
+            ByteBuffer buffer = key == null || key.isEmpty() ? null : _contentStore.getBuffer(key, resource, length, resource.lastModified());
+            return buffer == null ? super.getDirectBuffer() : buffer;
+        }
+    }
 }
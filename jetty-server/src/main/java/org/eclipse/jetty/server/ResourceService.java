@@ -25,6 +25,7 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 import javax.servlet.AsyncContext;
 import javax.servlet.RequestDispatcher;
@@ -81,6 +82,7 @@ public class ResourceService
     private boolean _etags = false;
     private HttpField _cacheControl;
     private List<String> _gzipEquivalentFileExtensions;
+    private Executor _readExecutor;
 
     public HttpContent.ContentFactory getContentFactory()
     {
@@ -199,6 +201,28 @@ public class ResourceService
         _gzipEquivalentFileExtensions = gzipEquivalentFileExtensions;
     }
 
+    /**
+     * @return the executor used to read content that is not cached, or null
+     */
+    public Executor getReadExecutor()
+    {
+        return _readExecutor;
+    }
+
+    /**
+     * <p>Sets the executor used to read content that is not cached when the response is
+     * written asynchronously, so that request threads are not blocked by file I/O.</p>
+     * <p>The executor should be bounded and dedicated to I/O, for example a small
+     * {@link org.eclipse.jetty.util.thread.QueuedThreadPool} with a bounded queue;
+     * the response fails when the executor rejects a task, rather than blocking the request thread.</p>
+     *
+     * @param readExecutor the executor used to read content that is not cached, or null to read in the request thread
+     */
+    public void setReadExecutor(Executor readExecutor)
+    {
+        _readExecutor = readExecutor;
+    }
+
     public boolean doGet(HttpServletRequest request, HttpServletResponse response)
         throws ServletException, IOException
     {
@@ -274,9 +298,10 @@ public class ResourceService
 
             // Precompressed variant available?
             Map<CompressedContentFormat, ? extends HttpContent> precompressedContents = checkPrecompressedVariants ? content.getPrecompressedContents() : null;
-            if (precompressedContents != null && precompressedContents.size() > 0)
+            if (precompressedContents != null)
             {
-                // Tell caches that response may vary by accept-encoding
+                // Tell caches that response may vary by accept-encoding, even if the
+                // variants are not available yet because they are being compressed
                 response.addHeader(HttpHeader.VARY.asString(), HttpHeader.ACCEPT_ENCODING.asString());
 
                 List<String> preferredEncodings = getPreferredEncodingOrder(request);
@@ -717,7 +742,7 @@ public class ResourceService
                     final AsyncContext context = request.startAsync();
                     context.setTimeout(0);
 
-                    ((HttpOutput)out).sendContent(content, new Callback()
+                    Callback callback = new Callback()
                     {
                         @Override
                         public void succeeded()
@@ -749,7 +774,15 @@ public class ResourceService
                         {
                             return String.format("ResourceService@%x$CB", ResourceService.this.hashCode());
                         }
-                    });
+                    };
+
+                    // Content that is not cached is read by the read executor, if any.
+                    Executor readExecutor = _readExecutor;
+                    if (readExecutor != null && !(content instanceof CachedContentFactory.CachedHttpContent ||
+                        content instanceof CachedContentFactory.CachedPrecompressedHttpContent || content instanceof CachedContentFactory.CachedCompressedHttpContent))
+                        ((HttpOutput)out).sendContent(content, readExecutor, callback);
+                    else
+                        ((HttpOutput)out).sendContent(content, callback);
                     return false;
                 }
                 // otherwise write content blocking
@@ -783,7 +816,10 @@ public class ResourceService
                     response.addDateHeader(HttpHeader.DATE.asString(), System.currentTimeMillis());
                 response.setHeader(HttpHeader.CONTENT_RANGE.asString(),
                     singleSatisfiableRange.toHeaderRangeString(content_length));
-                writeContent(content, out, singleSatisfiableRange.getFirst(), singleLength);
+                // try a zero-copy transfer of the range, otherwise write it normally
+                if (include || written || !(out instanceof HttpOutput) ||
+                    !((HttpOutput)out).transferContent(content, singleSatisfiableRange.getFirst(), singleLength))
+                    writeContent(content, out, singleSatisfiableRange.getFirst(), singleLength);
                 return true;
             }
 
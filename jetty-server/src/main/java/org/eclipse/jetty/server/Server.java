@@ -87,6 +87,7 @@ public class Server extends HandlerWrapper implements Attributes
     private boolean _dryRun;
     private final AutoLock _dateLock = new AutoLock();
     private volatile DateField _dateField;
+    private volatile CoarseClock _coarseClock;
     private long _stopTimeout;
 
     public Server()
@@ -159,6 +160,36 @@ public class Server extends HandlerWrapper implements Attributes
         _requestLog = requestLog;
     }
 
+    @ManagedAttribute("the coarse clock used for Date headers and request timestamps")
+    public CoarseClock getCoarseClock()
+    {
+        return _coarseClock;
+    }
+
+    /**
+     * <p>Sets a {@link CoarseClock} to be used, while it is running, for the {@code Date}
+     * response header and for the request timestamps, instead of reading the system clock
+     * for every request.</p>
+     *
+     * @param clock the coarse clock, or null to read the system clock for every request
+     */
+    public void setCoarseClock(CoarseClock clock)
+    {
+        updateBean(_coarseClock, clock, true);
+        _coarseClock = clock;
+    }
+
+    /**
+     * @return the current time in milliseconds, from the {@link #getCoarseClock() coarse clock} if one is running
+     */
+    public long currentTimeMillis()
+    {
+        CoarseClock clock = _coarseClock;
+        if (clock != null && clock.isRunning())
+            return clock.currentTimeMillis();
+        return System.currentTimeMillis();
+    }
+
     public void setErrorHandler(ErrorHandler errorHandler)
     {
         if (errorHandler instanceof ErrorHandler.ErrorPageMapper)
@@ -332,6 +363,10 @@ public class Server extends HandlerWrapper implements Attributes
 
     public HttpField getDateField()
     {
+        CoarseClock clock = _coarseClock;
+        if (clock != null && clock.isRunning())
+            return clock.getDateField();
+
         long now = System.currentTimeMillis();
         long seconds = now / 1000;
         DateField df = _dateField;
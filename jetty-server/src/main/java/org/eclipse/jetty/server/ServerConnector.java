@@ -422,6 +422,28 @@ public class ServerConnector extends AbstractNetworkConnector
         _manager.accept(channel);
     }
 
+    /**
+     * @return the max number of connections accepted per selection when there are no acceptor threads
+     * @see SelectorManager#getAcceptBatchSize()
+     */
+    @ManagedAttribute("The max number of connections accepted per selection when there are no acceptor threads")
+    public int getAcceptBatchSize()
+    {
+        return _manager.getAcceptBatchSize();
+    }
+
+    /**
+     * <p>Sets the max number of connections accepted per selection when there are no
+     * acceptor threads, so that connections are accepted in batches by the selector.</p>
+     *
+     * @param acceptBatchSize the max number of connections accepted per selection, or -1 for no limit
+     * @see SelectorManager#setAcceptBatchSize(int)
+     */
+    public void setAcceptBatchSize(int acceptBatchSize)
+    {
+        _manager.setAcceptBatchSize(acceptBatchSize);
+    }
+
     @ManagedAttribute("The Selector Manager")
     public SelectorManager getSelectorManager()
     {
@@ -0,0 +1,362 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.resource.Resource;
+import org.eclipse.jetty.util.thread.AutoLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A store of the bodies of static resources that is shared by all the content factories of a {@link Server}.</p>
+ * <p>Bodies are held either in memory mapped files or in direct buffers, so they do not use heap,
+ * and are keyed by the canonical path of the file, so that the same file served by several
+ * contexts or virtual hosts is only loaded once. An entry is reloaded when the last modified
+ * time or the length of the file changes.</p>
+ * <p>The store is enabled by adding it as a bean of the server:</p>
+ * <pre>
+ * server.addBean(new SharedContentStore());
+ * </pre>
+ * <p>{@link CachedContentFactory} and {@link ResourceContentFactory} instances created by
+ * {@link org.eclipse.jetty.server.handler.ResourceHandler} and {@code DefaultServlet}
+ * then obtain their direct buffers from the store.</p>
+ * <p>The buffers returned by {@link #getBuffer(String, Resource)} are read-only views of the stored
+ * buffers; an evicted buffer remains valid for as long as these views are used, so callers should
+ * not retain them beyond the response they are obtained for.</p>
+ * <p>Lookups of stored buffers do not take any lock; the entries are evicted in approximate
+ * least recently used order, where an entry looked up since it was last considered for
+ * eviction is given a second chance.</p>
+ */
+@ManagedObject("Store of static content shared by all contexts")
+public class SharedContentStore extends AbstractLifeCycle
+{
+    private static final Logger LOG = LoggerFactory.getLogger(SharedContentStore.class);
+
+    private final AutoLock _lock = new AutoLock();
+    private final Map<String, Entry> _entries = new ConcurrentHashMap<>();
+    // Eviction order of the entries, guarded by the lock.
+    private final Map<String, Entry> _evictionOrder = new LinkedHashMap<>();
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private long _storedSize;
+    private boolean _useFileMappedBuffer;
+    private int _maxStoredFileSize = 128 * 1024 * 1024;
+    private int _maxStoredFiles = 4096;
+    private long _maxStoreSize = 256 * 1024 * 1024;
+
+    @ManagedAttribute("Whether memory mapped files are used instead of direct buffers")
+    public boolean isUseFileMappedBuffer()
+    {
+        return _useFileMappedBuffer;
+    }
+
+    /**
+     * @param useFileMappedBuffer whether memory mapped files are used instead of direct buffers
+     */
+    public void setUseFileMappedBuffer(boolean useFileMappedBuffer)
+    {
+        _useFileMappedBuffer = useFileMappedBuffer;
+    }
+
+    @ManagedAttribute("The max size of a stored file in bytes")
+    public int getMaxStoredFileSize()
+    {
+        return _maxStoredFileSize;
+    }
+
+    public void setMaxStoredFileSize(int maxStoredFileSize)
+    {
+        _maxStoredFileSize = maxStoredFileSize;
+    }
+
+    @ManagedAttribute("The max number of stored files")
+    public int getMaxStoredFiles()
+    {
+        return _maxStoredFiles;
+    }
+
+    public void setMaxStoredFiles(int maxStoredFiles)
+    {
+        _maxStoredFiles = maxStoredFiles;
+        try (AutoLock l = _lock.lock())
+        {
+            shrink();
+        }
+    }
+
+    /**
+     * @return the max number of bytes of the stored direct buffers; memory mapped files are not counted
+     */
+    @ManagedAttribute("The max number of bytes of the stored direct buffers")
+    public long getMaxStoreSize()
+    {
+        return _maxStoreSize;
+    }
+
+    public void setMaxStoreSize(long maxStoreSize)
+    {
+        _maxStoreSize = maxStoreSize;
+        try (AutoLock l = _lock.lock())
+        {
+            shrink();
+        }
+    }
+
+    @ManagedAttribute("The number of stored files")
+    public int getStoredFiles()
+    {
+        return _entries.size();
+    }
+
+    @ManagedAttribute("The number of bytes of the stored direct buffers")
+    public long getStoredSize()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            return _storedSize;
+        }
+    }
+
+    @ManagedAttribute("The number of lookups that found a stored buffer")
+    public long getHits()
+    {
+        return _hits.sum();
+    }
+
+    @ManagedAttribute("The number of lookups that did not find a stored buffer")
+    public long getMisses()
+    {
+        return _misses.sum();
+    }
+
+    @ManagedOperation(value = "Resets the statistics", impact = "ACTION")
+    public void resetStats()
+    {
+        _hits.reset();
+        _misses.reset();
+    }
+
+    /**
+     * <p>Removes all the stored buffers.</p>
+     */
+    @ManagedOperation(value = "Removes all the stored buffers", impact = "ACTION")
+    public void flush()
+    {
+        try (AutoLock l = _lock.lock())
+        {
+            _entries.clear();
+            _evictionOrder.clear();
+            _storedSize = 0;
+        }
+    }
+
+    /**
+     * <p>Returns the key of the given resource in this store, that is the canonical path of its file.</p>
+     * <p>Computing the key requires file system access, so callers that look up the same
+     * resource several times should compute the key once and use {@link #getBuffer(String, Resource)}.</p>
+     *
+     * @param resource the resource
+     * @return the key of the resource, or null if the resource is not a file
+     */
+    public String getKey(Resource resource)
+    {
+        try
+        {
+            File file = resource.getFile();
+            return file == null ? null : file.toPath().toRealPath().toString();
+        }
+        catch (IOException x)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Unable to compute key of {}", resource, x);
+            return null;
+        }
+    }
+
+    /**
+     * <p>Returns a read-only view of the body of the given resource,
+     * loading it in the store if necessary.</p>
+     *
+     * @param resource the resource
+     * @return a read-only buffer with the body of the resource, or null if the
+     * resource is not a file or cannot be stored
+     * @see #getBuffer(String, Resource)
+     */
+    public ByteBuffer getBuffer(Resource resource)
+    {
+        if (!isRunning())
+            return null;
+        String key = getKey(resource);
+        return key == null ? null : getBuffer(key, resource);
+    }
+
+    /**
+     * <p>Returns a read-only view of the body of the given resource,
+     * loading it in the store if necessary.</p>
+     *
+     * @param key the key of the resource as returned by {@link #getKey(Resource)}
+     * @param resource the resource
+     * @return a read-only buffer with the body of the resource, or null if the
+     * resource cannot be stored
+     */
+    public ByteBuffer getBuffer(String key, Resource resource)
+    {
+        if (!isRunning())
+            return null;
+        return getBuffer(key, resource, resource.length(), resource.lastModified());
+    }
+
+    /**
+     * <p>Returns a read-only view of the body of the given resource,
+     * loading it in the store if necessary.</p>
+     * <p>This method is used by callers that have already validated the length
+     * and last modified time of the resource, so that the file system is not
+     * accessed when the body is stored.</p>
+     *
+     * @param key the key of the resource as returned by {@link #getKey(Resource)}
+     * @param resource the resource
+     * @param length the length of the resource
+     * @param lastModified the last modified time of the resource
+     * @return a read-only buffer with the body of the resource, or null if the
+     * resource cannot be stored
+     */
+    public ByteBuffer getBuffer(String key, Resource resource, long length, long lastModified)
+    {
+        if (!isRunning())
+            return null;
+
+        try
+        {
+            if (length <= 0 || length > _maxStoredFileSize)
+                return null;
+
+            Entry entry = _entries.get(key);
+            if (entry != null && entry._lastModified == lastModified && entry._length == length)
+            {
+                entry._accessed = true;
+                _hits.increment();
+                return entry._buffer.asReadOnlyBuffer();
+            }
+            _misses.increment();
+
+            File file = resource.getFile();
+            if (file == null)
+                return null;
+
+            // Load the file without holding the lock.
+            boolean mapped = _useFileMappedBuffer;
+            ByteBuffer buffer = mapped ? BufferUtil.toMappedBuffer(file) : BufferUtil.toBuffer(resource, true);
+            if (buffer == null || buffer.remaining() != length)
+                return null;
+            // Memory mapped files are paged by the OS and are not accounted.
+            Entry loaded = new Entry(buffer, lastModified, length, mapped ? 0 : length);
+
+            try (AutoLock l = _lock.lock())
+            {
+                entry = _entries.get(key);
+                if (entry != null && entry._lastModified == lastModified && entry._length == length)
+                {
+                    // Another thread loaded the same file concurrently.
+                    loaded = entry;
+                }
+                else
+                {
+                    if (entry != null)
+                    {
+                        _evictionOrder.remove(key);
+                        _storedSize -= entry._size;
+                    }
+                    _entries.put(key, loaded);
+                    _evictionOrder.put(key, loaded);
+                    _storedSize += loaded._size;
+                    shrink();
+                }
+            }
+            return loaded._buffer.asReadOnlyBuffer();
+        }
+        catch (IOException | IllegalArgumentException x)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Unable to store {}", resource, x);
+            return null;
+        }
+    }
+
+    private void shrink()
+    {
+        assert _lock.isHeldByCurrentThread();
+        // Evict the entries in insertion order, giving a second chance to the accessed ones.
+        while (!_evictionOrder.isEmpty() && (_evictionOrder.size() > _maxStoredFiles || _storedSize > _maxStoreSize))
+        {
+            Iterator<Map.Entry<String, Entry>> iterator = _evictionOrder.entrySet().iterator();
+            Map.Entry<String, Entry> eldest = iterator.next();
+            iterator.remove();
+            Entry entry = eldest.getValue();
+            if (entry._accessed)
+            {
+                entry._accessed = false;
+                _evictionOrder.put(eldest.getKey(), entry);
+            }
+            else
+            {
+                _entries.remove(eldest.getKey());
+                _storedSize -= entry._size;
+            }
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        flush();
+        super.doStop();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{files=%d,size=%d,mapped=%b}", getClass().getSimpleName(), hashCode(), getStoredFiles(), getStoredSize(), isUseFileMappedBuffer());
+    }
+
+    private static class Entry
+    {
+        private final ByteBuffer _buffer;
+        private final long _lastModified;
+        private final long _length;
+        private final long _size;
+        private volatile boolean _accessed;
+
+        private Entry(ByteBuffer buffer, long lastModified, long length, long size)
+        {
+            _buffer = buffer;
+            _lastModified = lastModified;
+            _length = length;
+            _size = size;
+        }
+    }
+}
@@ -42,6 +42,7 @@ public class SslConnectionFactory extends AbstractConnectionFactory implements C
     private boolean _directBuffersForEncryption = false;
     private boolean _directBuffersForDecryption = false;
     private boolean _ensureSecureRequestCustomizer = true;
+    private int _maxWrapRecords = 1;
 
     public SslConnectionFactory()
     {
@@ -106,6 +107,24 @@ public class SslConnectionFactory extends AbstractConnectionFactory implements C
         _ensureSecureRequestCustomizer = ensureSecureRequestCustomizer;
     }
 
+    /**
+     * @return the max number of TLS records wrapped before flushing
+     * @see SslConnection#getMaxWrapRecords()
+     */
+    public int getMaxWrapRecords()
+    {
+        return _maxWrapRecords;
+    }
+
+    /**
+     * @param maxWrapRecords the max number of TLS records wrapped before flushing
+     * @see SslConnection#setMaxWrapRecords(int)
+     */
+    public void setMaxWrapRecords(int maxWrapRecords)
+    {
+        _maxWrapRecords = maxWrapRecords;
+    }
+
     @Override
     protected void doStart() throws Exception
     {
@@ -155,6 +174,7 @@ public class SslConnectionFactory extends AbstractConnectionFactory implements C
         SslConnection sslConnection = newSslConnection(connector, endPoint, engine);
         sslConnection.setRenegotiationAllowed(_sslContextFactory.isRenegotiationAllowed());
         sslConnection.setRenegotiationLimit(_sslContextFactory.getRenegotiationLimit());
+        sslConnection.setMaxWrapRecords(getMaxWrapRecords());
         configure(sslConnection, connector, endPoint);
 
         ConnectionFactory next = connector.getConnectionFactory(_nextProtocol);
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -31,6 +32,7 @@ import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.ResourceContentFactory;
 import org.eclipse.jetty.server.ResourceService;
 import org.eclipse.jetty.server.ResourceService.WelcomeFactory;
+import org.eclipse.jetty.server.SharedContentStore;
 import org.eclipse.jetty.server.handler.ContextHandler.Context;
 import org.eclipse.jetty.util.StringUtil;
 import org.eclipse.jetty.util.URIUtil;
@@ -99,7 +101,10 @@ public class ResourceHandler extends HandlerWrapper implements ResourceFactory,
         if (_mimeTypes == null)
             _mimeTypes = _context == null ? new MimeTypes() : _context.getMimeTypes();
 
-        _resourceService.setContentFactory(new ResourceContentFactory(this, _mimeTypes, _resourceService.getPrecompressedFormats()));
+        ResourceContentFactory contentFactory = new ResourceContentFactory(this, _mimeTypes, _resourceService.getPrecompressedFormats());
+        if (getServer() != null)
+            contentFactory.setContentStore(getServer().getBean(SharedContentStore.class));
+        _resourceService.setContentFactory(contentFactory);
         _resourceService.setWelcomeFactory(this);
 
         super.doStart();
@@ -282,6 +287,15 @@ public class ResourceHandler extends HandlerWrapper implements ResourceFactory,
         return _resourceService.getPrecompressedFormats();
     }
 
+    /**
+     * @return the executor used to read content that is not cached, or null
+     * @see ResourceService#getReadExecutor()
+     */
+    public Executor getReadExecutor()
+    {
+        return _resourceService.getReadExecutor();
+    }
+
     /**
      * @return true, only the path info will be applied to the resourceBase
      */
@@ -379,6 +393,15 @@ public class ResourceHandler extends HandlerWrapper implements ResourceFactory,
         _resourceService.setPathInfoOnly(pathInfoOnly);
     }
 
+    /**
+     * @param readExecutor the executor used to read content that is not cached, or null to read in the request thread
+     * @see ResourceService#setReadExecutor(Executor)
+     */
+    public void setReadExecutor(Executor readExecutor)
+    {
+        _resourceService.setReadExecutor(readExecutor);
+    }
+
     /**
      * @param redirectWelcome If true, welcome files are redirected rather than forwarded to.
      * redirection is always used if the ResourceHandler is not scoped by
@@ -0,0 +1,107 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.DateGenerator;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpHeader;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CoarseClockTest
+{
+    @Test
+    public void testCachedBetweenTicks() throws Exception
+    {
+        CoarseClock clock = new CoarseClock(null, TimeUnit.HOURS.toMillis(1));
+        long before = System.currentTimeMillis();
+        clock.start();
+        try
+        {
+            long now = clock.currentTimeMillis();
+            assertThat(now, greaterThanOrEqualTo(before));
+            Thread.sleep(50);
+            assertEquals(now, clock.currentTimeMillis());
+
+            HttpField date = clock.getDateField();
+            assertEquals(HttpHeader.DATE, date.getHeader());
+            assertEquals(DateGenerator.formatDate(now), date.getValue());
+            assertThat(clock.getDateField(), sameInstance(date));
+        }
+        finally
+        {
+            clock.stop();
+        }
+
+        // A stopped clock reads the system clock.
+        before = System.currentTimeMillis();
+        assertThat(clock.currentTimeMillis(), greaterThanOrEqualTo(before));
+    }
+
+    @Test
+    public void testTicks() throws Exception
+    {
+        CoarseClock clock = new CoarseClock(null, 10);
+        clock.start();
+        try
+        {
+            long first = clock.currentTimeMillis();
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (clock.currentTimeMillis() == first && System.nanoTime() < end)
+            {
+                Thread.sleep(10);
+            }
+            assertThat(clock.currentTimeMillis(), greaterThan(first));
+            assertThat(clock.currentTimeMillis(), lessThanOrEqualTo(System.currentTimeMillis()));
+        }
+        finally
+        {
+            clock.stop();
+        }
+    }
+
+    @Test
+    public void testServerDateHeader() throws Exception
+    {
+        Server server = new Server();
+        LocalConnector connector = new LocalConnector(server);
+        server.addConnector(connector);
+        CoarseClock clock = new CoarseClock(null, 10);
+        server.setCoarseClock(clock);
+        server.start();
+        try
+        {
+            assertTrue(clock.isRunning());
+            long before = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(1);
+            assertThat(server.currentTimeMillis(), greaterThanOrEqualTo(before));
+            String response = connector.getResponse("GET / HTTP/1.0\r\n\r\n");
+            assertThat(response, containsString("HTTP/1.1 404 "));
+            assertThat(response, containsString("Date: "));
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+}
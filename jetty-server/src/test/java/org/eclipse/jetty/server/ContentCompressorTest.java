@@ -0,0 +1,185 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.jetty.http.CompressedContentFormat;
+import org.eclipse.jetty.http.HttpContent;
+import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDir;
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDirExtension;
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.resource.PathResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WorkDirExtension.class)
+public class ContentCompressorTest
+{
+    public WorkDir workDir;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private ContentCompressor compressor;
+
+    @BeforeEach
+    public void prepare() throws Exception
+    {
+        compressor = new ContentCompressor();
+        compressor.setExecutor(tasks::add);
+        compressor.start();
+    }
+
+    @AfterEach
+    public void dispose() throws Exception
+    {
+        compressor.stop();
+    }
+
+    private static String newText()
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+        {
+            builder.append("Line ").append(i % 10).append(" of a compressible text\n");
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testCompressInBackground() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        String text = newText();
+        Path file = basePath.resolve("text.txt");
+        Files.writeString(file, text);
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, true, CompressedContentFormat.NONE);
+        cache.setContentCompressor(compressor);
+
+        HttpContent content = cache.getContent("text.txt", 4096);
+
+        // The content is served uncompressed, but may vary, while it is compressed.
+        Map<CompressedContentFormat, ? extends HttpContent> variants = content.getPrecompressedContents();
+        assertNotNull(variants);
+        assertTrue(variants.isEmpty());
+        content.getPrecompressedContents();
+        assertEquals(1, tasks.size());
+        assertEquals(1, compressor.getPendingCompressions());
+
+        tasks.poll().run();
+        assertEquals(0, compressor.getPendingCompressions());
+        assertEquals(1, compressor.getCompressions());
+
+        variants = content.getPrecompressedContents();
+        HttpContent gzip = variants.get(CompressedContentFormat.GZIP);
+        assertThat(gzip, instanceOf(CachedContentFactory.CachedCompressedHttpContent.class));
+        assertEquals("gzip", gzip.getContentEncodingValue());
+        assertEquals(content.getContentTypeValue(), gzip.getContentTypeValue());
+        assertThat(gzip.getETagValue(), endsWith("--gzip\""));
+        assertThat(gzip.getContentLengthValue(), lessThan(content.getContentLengthValue()));
+        ByteBuffer buffer = gzip.getIndirectBuffer();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(BufferUtil.toArray(buffer))))
+        {
+            assertEquals(text, new String(in.readAllBytes(), UTF_8));
+        }
+        // The variant is accounted by the cache.
+        assertEquals(gzip.getContentLengthValue(), cache.getCachedSize());
+        assertTrue(tasks.isEmpty());
+
+        // The variant is invalidated with the content.
+        Files.writeString(file, text + text);
+        Files.setLastModifiedTime(file, Files.getLastModifiedTime(file).from(Files.getLastModifiedTime(file).toMillis() + 2000, java.util.concurrent.TimeUnit.MILLISECONDS));
+        HttpContent modified = cache.getContent("text.txt", 4096);
+        assertEquals(2L * text.length(), modified.getContentLengthValue());
+        assertEquals(0, cache.getCachedSize());
+        assertTrue(modified.getPrecompressedContents().isEmpty());
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void testInvalidatedWhileCompressing() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        Files.writeString(basePath.resolve("text.txt"), newText());
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, true, CompressedContentFormat.NONE);
+        cache.setContentCompressor(compressor);
+
+        HttpContent content = cache.getContent("text.txt", 4096);
+        assertTrue(content.getPrecompressedContents().isEmpty());
+        assertEquals(1, tasks.size());
+
+        // The content is invalidated before the compression completes.
+        cache.flushCache();
+        tasks.poll().run();
+        assertEquals(1, compressor.getCompressions());
+
+        // The variants are neither installed nor accounted.
+        assertEquals(0, cache.getCachedSize());
+        assertNull(content.getPrecompressedContents());
+    }
+
+    @Test
+    public void testNotCompressible() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        Files.writeString(basePath.resolve("small.txt"), "small");
+        Files.writeString(basePath.resolve("image.png"), newText());
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, true, CompressedContentFormat.NONE);
+        cache.setContentCompressor(compressor);
+
+        assertNull(cache.getContent("small.txt", 4096).getPrecompressedContents());
+        assertNull(cache.getContent("image.png", 4096).getPrecompressedContents());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testPrecompressedFileTakesPrecedence() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        Files.writeString(basePath.resolve("text.txt"), newText());
+        Files.writeString(basePath.resolve("text.txt.gz"), "fake gzip");
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, true, new CompressedContentFormat[]{CompressedContentFormat.GZIP});
+        cache.setContentCompressor(compressor);
+
+        HttpContent content = cache.getContent("text.txt", 4096);
+        content.getPrecompressedContents();
+        tasks.poll().run();
+
+        HttpContent gzip = content.getPrecompressedContents().get(CompressedContentFormat.GZIP);
+        assertThat(gzip, instanceOf(CachedContentFactory.CachedPrecompressedHttpContent.class));
+        assertEquals("fake gzip", BufferUtil.toString(gzip.getIndirectBuffer(), UTF_8));
+    }
+}
@@ -30,21 +30,27 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jetty.http.HttpCompliance;
+import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpParser;
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.http.MetaData;
 import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.io.Connection;
+import org.eclipse.jetty.io.EndPoint;
 import org.eclipse.jetty.logging.StacklessLogging;
 import org.eclipse.jetty.server.LocalConnector.LocalEndPoint;
 import org.eclipse.jetty.server.handler.AbstractHandler;
@@ -69,6 +75,8 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpConnectionTest
@@ -201,6 +209,198 @@ public class HttpConnectionTest
         assertThat(response, not(containsString("id=456")));
     }
 
+    @Test
+    public void testPipelinedRequestsReuseMetaData() throws Exception
+    {
+        connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration().setReuseRequestMetaData(true);
+
+        String requests =
+            "GET /R1?id=123 HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "X-Test: one\r\n" +
+            "\r\n" +
+            "GET /R%202 HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "\r\n" +
+            "POST /R3 HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "X-Test: three\r\n" +
+            "Content-Length: 5\r\n" +
+            "Connection: close\r\n" +
+            "\r\n" +
+            "12345";
+        LocalEndPoint endp = connector.executeRequest(requests);
+
+        // Each request sees only its own metadata.
+        String response = endp.getResponse();
+        assertThat(response, containsString("HTTP/1.1 200"));
+        assertThat(response, containsString("GET /R1 HTTP/1.1"));
+        assertThat(response, containsString("X-Test: one"));
+
+        response = endp.getResponse();
+        assertThat(response, containsString("HTTP/1.1 200"));
+        assertThat(response, containsString("pathInfo=/R 2"));
+        assertThat(response, not(containsString("X-Test")));
+
+        response = endp.getResponse();
+        assertThat(response, containsString("HTTP/1.1 200"));
+        assertThat(response, containsString("POST /R3 HTTP/1.1"));
+        assertThat(response, containsString("X-Test: three"));
+        assertThat(response, containsString("Content-Length: 5\n"));
+        assertThat(response, containsString("12345"));
+    }
+
+    @Test
+    public void testPipelinedRequestsShareMetaData() throws Exception
+    {
+        List<MetaData.Request> metaData = new CopyOnWriteArrayList<>();
+        server.stop();
+        connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration().setReuseRequestMetaData(true);
+        server.setHandler(new MetaDataHandler(metaData));
+        server.start();
+
+        LocalEndPoint endp = connector.executeRequest(
+            "GET /one HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "\r\n" +
+            "GET /two HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "Connection: close\r\n" +
+            "\r\n");
+        assertThat(endp.getResponse(), containsString("HTTP/1.1 200"));
+        assertThat(endp.getResponse(), containsString("HTTP/1.1 200"));
+
+        // Synchronously handled requests reuse the same metadata.
+        assertEquals(2, metaData.size());
+        assertSame(metaData.get(0), metaData.get(1));
+    }
+
+    @Test
+    public void testAsyncRequestMetaDataNotReused() throws Exception
+    {
+        List<MetaData.Request> metaData = new CopyOnWriteArrayList<>();
+        server.stop();
+        connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration().setReuseRequestMetaData(true);
+        server.setHandler(new MetaDataHandler(metaData)
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException
+            {
+                super.handle(target, baseRequest, request, response);
+                if ("/async".equals(target))
+                {
+                    // The request escapes the handling thread.
+                    AsyncContext async = request.startAsync();
+                    new Thread(async::complete).start();
+                }
+            }
+        });
+        server.start();
+
+        LocalEndPoint endp = connector.executeRequest(
+            "GET /async?a=1 HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "X-Test: one\r\n" +
+            "\r\n" +
+            "POST /two HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "X-Test: two\r\n" +
+            "Content-Length: 0\r\n" +
+            "Connection: close\r\n" +
+            "\r\n");
+        assertThat(endp.getResponse(), containsString("HTTP/1.1 200"));
+        assertThat(endp.getResponse(), containsString("HTTP/1.1 200"));
+
+        assertEquals(2, metaData.size());
+        assertNotSame(metaData.get(0), metaData.get(1));
+        assertRequestMetaData(metaData.get(0), "GET", "/async?a=1", "one");
+        assertRequestMetaData(metaData.get(1), "POST", "/two", "two");
+    }
+
+    @Test
+    public void testUpgradeRequestMetaDataNotReused() throws Exception
+    {
+        List<MetaData.Request> upgrades = new CopyOnWriteArrayList<>();
+        List<MetaData.Request> metaData = new CopyOnWriteArrayList<>();
+        server.stop();
+        connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration().setReuseRequestMetaData(true);
+        // Retains the metadata of the upgrade request, but declines the upgrade.
+        connector.addConnectionFactory(new UpgradingConnectionFactory(upgrades));
+        server.setHandler(new MetaDataHandler(metaData));
+        server.start();
+
+        LocalEndPoint endp = connector.executeRequest(
+            "GET /upgrade?a=1 HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "X-Test: one\r\n" +
+            "Connection: Upgrade\r\n" +
+            "Upgrade: test\r\n" +
+            "\r\n" +
+            "POST /two HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "X-Test: two\r\n" +
+            "Content-Length: 0\r\n" +
+            "Connection: close\r\n" +
+            "\r\n");
+        assertThat(endp.getResponse(), containsString("HTTP/1.1 200"));
+        assertThat(endp.getResponse(), containsString("HTTP/1.1 200"));
+
+        assertEquals(1, upgrades.size());
+        assertEquals(2, metaData.size());
+        assertNotSame(upgrades.get(0), metaData.get(1));
+        assertRequestMetaData(upgrades.get(0), "GET", "/upgrade?a=1", "one");
+        assertRequestMetaData(metaData.get(1), "POST", "/two", "two");
+    }
+
+    private static void assertRequestMetaData(MetaData.Request metaData, String method, String uri, String test)
+    {
+        assertEquals(method, metaData.getMethod());
+        assertEquals(uri, metaData.getURI().getPathQuery());
+        assertEquals(test, metaData.getFields().get("X-Test"));
+        assertEquals("localhost", metaData.getFields().get(HttpHeader.HOST));
+    }
+
+    private static class MetaDataHandler extends AbstractHandler
+    {
+        private final List<MetaData.Request> _metaData;
+
+        private MetaDataHandler(List<MetaData.Request> metaData)
+        {
+            _metaData = metaData;
+        }
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException
+        {
+            baseRequest.setHandled(true);
+            _metaData.add(baseRequest.getMetaData());
+        }
+    }
+
+    private static class UpgradingConnectionFactory extends AbstractConnectionFactory implements ConnectionFactory.Upgrading
+    {
+        private final List<MetaData.Request> _upgrades;
+
+        private UpgradingConnectionFactory(List<MetaData.Request> upgrades)
+        {
+            super("test");
+            _upgrades = upgrades;
+        }
+
+        @Override
+        public Connection newConnection(Connector connector, EndPoint endPoint)
+        {
+            return null;
+        }
+
+        @Override
+        public Connection upgradeConnection(Connector connector, EndPoint endPoint, MetaData.Request upgradeRequest, HttpFields.Mutable responseFields)
+        {
+            _upgrades.add(upgradeRequest);
+            return null;
+        }
+    }
+
     /**
      * Ensure that excessively large hexadecimal chunk body length is parsed properly.
      */
@@ -17,12 +17,16 @@ import java.io.ByteArrayOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.AsyncContext;
@@ -31,6 +35,8 @@ import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.jetty.http.HttpContent;
+import org.eclipse.jetty.http.ResourceHttpContent;
 import org.eclipse.jetty.io.NullByteBufferPool;
 import org.eclipse.jetty.server.HttpOutput.Interceptor;
 import org.eclipse.jetty.server.LocalConnector.LocalEndPoint;
@@ -48,8 +54,11 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -204,6 +213,132 @@ public class HttpOutputTest
         assertThat(response, endsWith(toUTF8String(big)));
     }
 
+    @Test
+    public void testSendChannelBigWithReadExecutor() throws Exception
+    {
+        Resource big = Resource.newClassPathResource("simple/big.txt");
+        AtomicInteger reads = new AtomicInteger();
+        _handler._contentChannel = big.getReadableByteChannel();
+        _handler._contentExecutor = task ->
+        {
+            reads.incrementAndGet();
+            new Thread(task).start();
+        };
+
+        String response = _connector.getResponse("GET / HTTP/1.0\nHost: localhost:80\n\n");
+        assertThat(response, containsString("HTTP/1.1 200 OK"));
+        assertThat(response, endsWith(toUTF8String(big)));
+        // The content is larger than the output buffer, so it is read in several chunks.
+        assertThat(reads.get(), greaterThan(1));
+    }
+
+    @Test
+    public void testSendHttpContentWithReadExecutorFailure() throws Exception
+    {
+        Resource big = Resource.newClassPathResource("simple/big.txt");
+        HttpContent content = new ResourceHttpContent(big, "text/plain")
+        {
+            @Override
+            public ByteBuffer getDirectBuffer()
+            {
+                throw new RuntimeException(new IOException("truncated"));
+            }
+
+            @Override
+            public ByteBuffer getIndirectBuffer()
+            {
+                throw new RuntimeException(new IOException("truncated"));
+            }
+        };
+        FuturePromise<Throwable> failure = new FuturePromise<>();
+        testSendHttpContentWithReadExecutor(content, task -> new Thread(task).start(), failure);
+        assertThat(failure.get(10, TimeUnit.SECONDS).getCause(), instanceOf(IOException.class));
+    }
+
+    @Test
+    public void testSendHttpContentWithRejectingReadExecutor() throws Exception
+    {
+        Resource big = Resource.newClassPathResource("simple/big.txt");
+        HttpContent content = new ResourceHttpContent(big, "text/plain");
+        FuturePromise<Throwable> failure = new FuturePromise<>();
+        testSendHttpContentWithReadExecutor(content, task ->
+        {
+            throw new RejectedExecutionException();
+        }, failure);
+        assertThat(failure.get(10, TimeUnit.SECONDS), instanceOf(RejectedExecutionException.class));
+    }
+
+    @Test
+    public void testSendChannelWithRejectingReadExecutor() throws Exception
+    {
+        Resource big = Resource.newClassPathResource("simple/big.txt");
+        ReadableByteChannel channel = big.getReadableByteChannel();
+        AtomicInteger reads = new AtomicInteger();
+        FuturePromise<Throwable> failure = new FuturePromise<>();
+        AbstractHandler handler = new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+            {
+                baseRequest.setHandled(true);
+                AsyncContext async = request.startAsync();
+                async.setTimeout(0);
+                HttpOutput out = (HttpOutput)response.getOutputStream();
+                // Only the first chunk is read, the following reads are rejected.
+                Executor executor = task ->
+                {
+                    if (reads.getAndIncrement() > 0)
+                        throw new RejectedExecutionException();
+                    new Thread(task).start();
+                };
+                out.sendContent(channel, executor, Callback.from(() ->
+                {
+                    failure.succeeded(null);
+                    async.complete();
+                }, x ->
+                {
+                    failure.succeeded(x);
+                    async.complete();
+                }));
+            }
+        };
+
+        _swap.setHandler(handler);
+        handler.start();
+        _connector.getResponse("GET / HTTP/1.0\nHost: localhost:80\n\n", 10, TimeUnit.SECONDS);
+        assertThat(failure.get(10, TimeUnit.SECONDS), instanceOf(RejectedExecutionException.class));
+        assertThat(reads.get(), is(2));
+        assertFalse(channel.isOpen());
+    }
+
+    private void testSendHttpContentWithReadExecutor(HttpContent content, Executor executor, FuturePromise<Throwable> failure) throws Exception
+    {
+        AbstractHandler handler = new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+            {
+                baseRequest.setHandled(true);
+                AsyncContext async = request.startAsync();
+                async.setTimeout(0);
+                HttpOutput out = (HttpOutput)response.getOutputStream();
+                out.sendContent(content, executor, Callback.from(() ->
+                {
+                    failure.succeeded(null);
+                    async.complete();
+                }, x ->
+                {
+                    failure.succeeded(x);
+                    async.complete();
+                }));
+            }
+        };
+
+        _swap.setHandler(handler);
+        handler.start();
+        _connector.getResponse("GET / HTTP/1.0\nHost: localhost:80\n\n", 10, TimeUnit.SECONDS);
+    }
+
     @Test
     public void testSendBigDirect() throws Exception
     {
@@ -771,6 +906,74 @@ public class HttpOutputTest
         assertThat(committed.get(10, TimeUnit.SECONDS), is(false));
     }
 
+    @Test
+    public void testAggregatedChunks() throws Exception
+    {
+        _connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration().setOutputAggregationDelay(60000);
+        AbstractHandler handler = new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException
+            {
+                baseRequest.setHandled(true);
+                response.setStatus(200);
+                OutputStream out = response.getOutputStream();
+                out.write('0');
+                out.flush();
+                for (int i = 0; i < 9; i++)
+                {
+                    out.write("Hello".getBytes(StandardCharsets.ISO_8859_1));
+                    out.flush();
+                }
+            }
+        };
+
+        _swap.setHandler(handler);
+        handler.start();
+        String response = _connector.getResponse("GET / HTTP/1.1\nHost: localhost:80\n\n");
+        assertThat(response, containsString("HTTP/1.1 200 OK"));
+        assertThat(response, containsString("Transfer-Encoding: chunked"));
+        assertThat(response, containsString("\r\n1\r\n0\r\n"));
+        assertThat(response, containsString("\r\n2D\r\n" + "Hello".repeat(9) + "\r\n0\r\n"));
+    }
+
+    @Test
+    public void testAggregatedChunksDelayedFlush() throws Exception
+    {
+        _connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration().setOutputAggregationDelay(100);
+        AbstractHandler handler = new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException
+            {
+                baseRequest.setHandled(true);
+                response.setStatus(200);
+                OutputStream out = response.getOutputStream();
+                for (int i = 0; i < 3; i++)
+                {
+                    out.write('0' + i);
+                    out.flush();
+                }
+                try
+                {
+                    Thread.sleep(1000);
+                }
+                catch (InterruptedException e)
+                {
+                    throw new InterruptedIOException();
+                }
+                out.write('3');
+                out.flush();
+            }
+        };
+
+        _swap.setHandler(handler);
+        handler.start();
+        String response = _connector.getResponse("GET / HTTP/1.1\nHost: localhost:80\n\n");
+        assertThat(response, containsString("HTTP/1.1 200 OK"));
+        assertThat(response, containsString("\r\n1\r\n0\r\n2\r\n12\r\n1\r\n3\r\n0\r\n"));
+    }
+
     @Test
     public void testEmptyArrayKnown() throws Exception
     {
@@ -1189,6 +1392,7 @@ public class HttpOutputTest
         byte[] _arrayBuffer;
         InputStream _contentInputStream;
         ReadableByteChannel _contentChannel;
+        Executor _contentExecutor;
         ByteBuffer _content;
         ChainedInterceptor _interceptor;
         final FuturePromise<Boolean> _closedAfterWrite = new FuturePromise<>();
@@ -1216,6 +1420,14 @@ public class HttpOutputTest
                 return;
             }
 
+            if (_contentChannel != null && _contentExecutor != null)
+            {
+                AsyncContext async = request.startAsync();
+                out.sendContent(_contentChannel, _contentExecutor, Callback.from(async::complete, x -> async.complete()));
+                _contentChannel = null;
+                return;
+            }
+
             if (_contentChannel != null)
             {
                 out.sendContent(_contentChannel);
@@ -357,6 +357,51 @@ public class NotAcceptingTest
         assertThat(asyncConnector.isAccepting(), is(true));
     }
 
+    @Test
+    public void testAcceptRateShaper() throws Exception
+    {
+        AcceptRateShaper shaper = new AcceptRateShaper(2, 2, asyncConnector);
+        server.addBean(shaper);
+        server.setHandler(new HelloHandler());
+        asyncConnector.setAcceptBatchSize(4);
+
+        server.start();
+
+        try (
+            Socket async0 = new Socket("localhost", asyncConnector.getLocalPort());
+            Socket async1 = new Socket("localhost", asyncConnector.getLocalPort());
+        )
+        {
+            String expectedContent = "Hello" + System.lineSeparator();
+
+            for (Socket client : new Socket[]{async0, async1})
+            {
+                HttpTester.Input in = HttpTester.from(client.getInputStream());
+                client.getOutputStream().write("GET /test HTTP/1.1\r\nHost:localhost\r\n\r\n".getBytes());
+                HttpTester.Response response = HttpTester.parseResponse(in);
+                assertThat(response.getStatus(), is(200));
+                assertThat(response.getContent(), is(expectedContent));
+            }
+
+            // The burst is consumed, accepting is suspended until a token is refilled.
+            assertThat(shaper.getSuspensions(), is(1L));
+            assertThat(blockingConnector.isAccepting(), is(true));
+
+            try (Socket async2 = new Socket("localhost", asyncConnector.getLocalPort()))
+            {
+                HttpTester.Input in = HttpTester.from(async2.getInputStream());
+                async2.getOutputStream().write("GET /test HTTP/1.1\r\nHost:localhost\r\n\r\n".getBytes());
+                HttpTester.Response response = HttpTester.parseResponse(in);
+                assertThat(response.getStatus(), is(200));
+                assertThat(response.getContent(), is(expectedContent));
+            }
+        }
+
+        waitFor(shaper::isShaping, is(false), 2 * idleTimeout, TimeUnit.MILLISECONDS);
+        waitFor(asyncConnector::isAccepting, is(true), 2 * idleTimeout, TimeUnit.MILLISECONDS);
+        assertThat(asyncConnector.getAcceptBatchSize(), is(4));
+    }
+
     @Test
     public void testConnectionLimit() throws Exception
     {
@@ -42,6 +42,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -342,6 +344,52 @@ public class ResourceCacheTest
         cache.flushCache();
     }
 
+    @Test
+    public void testFrequentContentSurvivesScan() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        for (int i = 0; i < 100; i++)
+        {
+            Files.write(basePath.resolve("F-" + i + ".txt"), new byte[10]);
+        }
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, false, CompressedContentFormat.NONE);
+        cache.setMaxCacheSize(1000);
+        cache.setMaxCachedFiles(20);
+
+        // Access a small set of hot files several times.
+        for (int r = 0; r < 5; r++)
+        {
+            for (int i = 0; i < 10; i++)
+            {
+                cache.getContent("F-" + i + ".txt", 4096).getIndirectBuffer();
+            }
+        }
+        assertEquals(40, cache.getHits());
+        assertEquals(10, cache.getMisses());
+
+        // Scan all the other files once.
+        for (int i = 10; i < 100; i++)
+        {
+            cache.getContent("F-" + i + ".txt", 4096).getIndirectBuffer();
+        }
+        assertThat(cache.getEvictions(), greaterThan(0L));
+        assertThat(cache.getCachedFiles(), lessThanOrEqualTo(20));
+
+        // The hot files are still cached.
+        cache.resetStats();
+        for (int i = 0; i < 10; i++)
+        {
+            cache.getContent("F-" + i + ".txt", 4096);
+        }
+        assertEquals(10, cache.getHits());
+        assertEquals(0, cache.getMisses());
+
+        cache.flushCache();
+        assertEquals(0, cache.getCachedSize());
+        assertEquals(0, cache.getCachedFiles());
+    }
+
     @Test
     public void testNoextension() throws Exception
     {
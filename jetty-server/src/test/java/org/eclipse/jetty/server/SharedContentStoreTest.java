@@ -0,0 +1,190 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jetty.http.CompressedContentFormat;
+import org.eclipse.jetty.http.HttpContent;
+import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDir;
+import org.eclipse.jetty.toolchain.test.jupiter.WorkDirExtension;
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.resource.PathResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WorkDirExtension.class)
+public class SharedContentStoreTest
+{
+    public WorkDir workDir;
+    private SharedContentStore store;
+
+    @BeforeEach
+    public void prepare() throws Exception
+    {
+        store = new SharedContentStore();
+        store.start();
+    }
+
+    @AfterEach
+    public void dispose() throws Exception
+    {
+        store.stop();
+    }
+
+    @Test
+    public void testSharedBetweenFactories() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        Files.writeString(basePath.resolve("shared.txt"), "shared content");
+
+        CachedContentFactory cache1 = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, false, CompressedContentFormat.NONE);
+        cache1.setContentStore(store);
+        ResourceContentFactory factory2 = new ResourceContentFactory(new PathResource(basePath), new MimeTypes(), CompressedContentFormat.NONE);
+        factory2.setContentStore(store);
+
+        HttpContent content1 = cache1.getContent("shared.txt", 4096);
+        ByteBuffer buffer1 = content1.getDirectBuffer();
+        assertTrue(buffer1.isDirect());
+        assertEquals("shared content", BufferUtil.toString(buffer1, UTF_8));
+        // The buffer is accounted by the store, not by the cache.
+        assertEquals(0, cache1.getCachedSize());
+
+        HttpContent content2 = factory2.getContent("shared.txt", 4096);
+        assertEquals("shared content", BufferUtil.toString(content2.getDirectBuffer(), UTF_8));
+        assertEquals("shared content", BufferUtil.toString(content2.getDirectBuffer(), UTF_8));
+
+        assertEquals(1, store.getStoredFiles());
+        assertEquals(14, store.getStoredSize());
+        assertEquals(1, store.getMisses());
+        assertEquals(2, store.getHits());
+    }
+
+    @Test
+    public void testMaxBufferSizeRespected() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        Files.writeString(basePath.resolve("large.txt"), "large content");
+
+        ResourceContentFactory factory = new ResourceContentFactory(new PathResource(basePath), new MimeTypes(), CompressedContentFormat.NONE);
+        factory.setContentStore(store);
+
+        // Content larger than the max buffer size is streamed rather than stored.
+        HttpContent content = factory.getContent("large.txt", 8);
+        assertNull(content.getDirectBuffer());
+        assertEquals(0, store.getStoredFiles());
+
+        content = factory.getContent("large.txt", 4096);
+        assertEquals("large content", BufferUtil.toString(content.getDirectBuffer(), UTF_8));
+        assertEquals(1, store.getStoredFiles());
+    }
+
+    @Test
+    public void testCachedContentDoesNotRetainStoreBuffer() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        Files.writeString(basePath.resolve("file.txt"), "content");
+
+        CachedContentFactory cache = new CachedContentFactory(null, new PathResource(basePath), new MimeTypes(), false, false, CompressedContentFormat.NONE);
+        cache.setContentStore(store);
+        HttpContent content = cache.getContent("file.txt", 4096);
+        assertEquals("content", BufferUtil.toString(content.getDirectBuffer(), UTF_8));
+
+        // Once evicted from the store, the buffer is loaded again rather than pinned by the cache.
+        store.flush();
+        assertEquals("content", BufferUtil.toString(content.getDirectBuffer(), UTF_8));
+        assertEquals(1, store.getStoredFiles());
+        assertEquals(7, store.getStoredSize());
+        assertEquals(2, store.getMisses());
+        assertEquals(0, cache.getCachedSize());
+    }
+
+    @Test
+    public void testReloadModifiedFile() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        Path file = basePath.resolve("file.txt");
+        Files.writeString(file, "one");
+        PathResource resource = new PathResource(file);
+
+        assertEquals("one", BufferUtil.toString(store.getBuffer(resource), UTF_8));
+
+        Files.writeString(file, "three");
+        assertEquals("three", BufferUtil.toString(store.getBuffer(resource), UTF_8));
+        assertEquals(1, store.getStoredFiles());
+        assertEquals(5, store.getStoredSize());
+        assertEquals(2, store.getMisses());
+    }
+
+    @Test
+    public void testEvictionSecondChance() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        store.setMaxStoredFiles(2);
+        PathResource[] resources = new PathResource[3];
+        for (int i = 0; i < resources.length; i++)
+        {
+            Path file = basePath.resolve("file" + i + ".txt");
+            Files.write(file, new byte[10]);
+            resources[i] = new PathResource(file);
+        }
+
+        store.getBuffer(resources[0]);
+        store.getBuffer(resources[1]);
+        // Accessing the eldest entry saves it from the next eviction.
+        store.getBuffer(resources[0]);
+        store.getBuffer(resources[2]);
+        assertEquals(2, store.getStoredFiles());
+        assertEquals(3, store.getMisses());
+
+        store.getBuffer(resources[0]);
+        assertEquals(3, store.getMisses());
+        store.getBuffer(resources[1]);
+        assertEquals(4, store.getMisses());
+    }
+
+    @Test
+    public void testEviction() throws Exception
+    {
+        Path basePath = workDir.getEmptyPathDir();
+        store.setMaxStoreSize(25);
+        for (int i = 0; i < 3; i++)
+        {
+            Path file = basePath.resolve("file" + i + ".txt");
+            Files.write(file, new byte[10]);
+            assertEquals(10, store.getBuffer(new PathResource(file)).remaining());
+        }
+        assertEquals(2, store.getStoredFiles());
+        assertEquals(20, store.getStoredSize());
+
+        store.setMaxStoredFileSize(5);
+        Path large = basePath.resolve("large.txt");
+        Files.write(large, new byte[10]);
+        assertNull(store.getBuffer(new PathResource(large)));
+
+        store.flush();
+        assertEquals(0, store.getStoredFiles());
+        assertEquals(0, store.getStoredSize());
+    }
+}
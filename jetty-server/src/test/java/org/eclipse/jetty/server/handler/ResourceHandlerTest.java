@@ -23,6 +23,7 @@ import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Arrays;
 
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.http.HttpTester;
@@ -51,6 +52,7 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -268,6 +270,41 @@ public class ResourceHandlerTest
         }
     }
 
+    @Test
+    public void testBiggerFileTransfer() throws Exception
+    {
+        _config.setUseFileTransfer(true);
+        try (Socket socket = new Socket("localhost", _connector.getLocalPort()))
+        {
+            byte[] bigger = Files.readAllBytes(MavenTestingUtils.getTargetFile("test-classes/simple/bigger.txt").toPath());
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /resource/bigger.txt HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "\r\n" +
+                "GET /resource/bigger.txt HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Range: bytes=1000-1999\r\n" +
+                "Connection: close\r\n" +
+                "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+
+            HttpTester.Input input = HttpTester.from(socket.getInputStream());
+            HttpTester.Response response = HttpTester.parseResponse(input);
+            assertThat(response.getStatus(), equalTo(HttpStatus.OK_200));
+            assertThat(response.get(CONTENT_LENGTH), equalTo(Integer.toString(bigger.length)));
+            assertArrayEquals(bigger, response.getContentBytes());
+
+            response = HttpTester.parseResponse(input);
+            assertThat(response.getStatus(), equalTo(HttpStatus.PARTIAL_CONTENT_206));
+            assertThat(response.get(CONTENT_LENGTH), equalTo("1000"));
+            assertArrayEquals(Arrays.copyOfRange(bigger, 1000, 2000), response.getContentBytes());
+        }
+        finally
+        {
+            _config.setUseFileTransfer(false);
+        }
+    }
+
     @Test
     public void testWelcome() throws Exception
     {
@@ -15,6 +15,7 @@ package org.eclipse.jetty.servlet;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.StringTokenizer;
@@ -31,9 +32,11 @@ import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.MimeTypes;
 import org.eclipse.jetty.http.PreEncodedHttpField;
 import org.eclipse.jetty.server.CachedContentFactory;
+import org.eclipse.jetty.server.ContentCompressor;
 import org.eclipse.jetty.server.ResourceContentFactory;
 import org.eclipse.jetty.server.ResourceService;
 import org.eclipse.jetty.server.ResourceService.WelcomeFactory;
+import org.eclipse.jetty.server.SharedContentStore;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.server.handler.ResourceHandler;
 import org.eclipse.jetty.util.URIUtil;
@@ -81,6 +84,8 @@ import org.slf4j.LoggerFactory;
  *                    "br=.br,gzip=.gz,bzip2=.bz".
  *                    If set to a boolean True, then a default set of compressed formats
  *                    will be used, otherwise no precompressed formats.
+ *                    If the server has a ContentCompressor bean, the resources that are
+ *                    cached are also compressed in the background with its formats.
  *
  *  resourceBase      Set to replace the context resource base
  *
@@ -249,11 +254,14 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
             _cache = (CachedContentFactory)_servletContext.getAttribute(resourceCache);
         }
 
+        SharedContentStore contentStore = _contextHandler.getServer() == null ? null : _contextHandler.getServer().getBean(SharedContentStore.class);
         try
         {
             if (_cache == null && (maxCachedFiles != -2 || maxCacheSize != -2 || maxCachedFileSize != -2))
             {
                 _cache = new CachedContentFactory(null, this, _mimeTypes, _useFileMappedBuffer, _resourceService.isEtags(), _resourceService.getPrecompressedFormats());
+                _cache.setContentStore(contentStore);
+                _cache.setContentCompressor(_contextHandler.getServer() == null ? null : _contextHandler.getServer().getBean(ContentCompressor.class));
                 if (maxCacheSize >= 0)
                     _cache.setMaxCacheSize(maxCacheSize);
                 if (maxCachedFileSize >= -1)
@@ -261,6 +269,7 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
                 if (maxCachedFiles >= -1)
                     _cache.setMaxCachedFiles(maxCachedFiles);
                 _servletContext.setAttribute(resourceCache == null ? "resourceCache" : resourceCache, _cache);
+                _contextHandler.addBean(_cache);
             }
         }
         catch (Exception e)
@@ -269,10 +278,25 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
             throw new UnavailableException(e.toString());
         }
 
+        // Serve the variants of the compressor from the cache, as well as the precompressed files.
+        ContentCompressor contentCompressor = _cache == null ? null : _cache.getContentCompressor();
+        if (contentCompressor != null)
+        {
+            List<CompressedContentFormat> formats = new ArrayList<>(Arrays.asList(_resourceService.getPrecompressedFormats()));
+            for (CompressedContentFormat format : contentCompressor.getFormats())
+            {
+                if (!formats.contains(format))
+                    formats.add(format);
+            }
+            _resourceService.setPrecompressedFormats(formats.toArray(new CompressedContentFormat[0]));
+        }
+
         HttpContent.ContentFactory contentFactory = _cache;
         if (contentFactory == null)
         {
-            contentFactory = new ResourceContentFactory(this, _mimeTypes, _resourceService.getPrecompressedFormats());
+            ResourceContentFactory resourceContentFactory = new ResourceContentFactory(this, _mimeTypes, _resourceService.getPrecompressedFormats());
+            resourceContentFactory.setContentStore(contentStore);
+            contentFactory = resourceContentFactory;
             if (resourceCache != null)
                 _servletContext.setAttribute(resourceCache, contentFactory);
         }
@@ -486,7 +510,10 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
     public void destroy()
     {
         if (_cache != null)
+        {
             _cache.flushCache();
+            _contextHandler.removeBean(_cache);
+        }
         super.destroy();
     }
 
@@ -13,6 +13,7 @@
 
 package org.eclipse.jetty.servlet;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -29,6 +30,7 @@ import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -49,6 +51,7 @@ import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.http.HttpTester;
 import org.eclipse.jetty.logging.StacklessLogging;
 import org.eclipse.jetty.server.AllowedResourceAliasChecker;
+import org.eclipse.jetty.server.ContentCompressor;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.LocalConnector;
 import org.eclipse.jetty.server.ResourceContentFactory;
@@ -1718,6 +1721,61 @@ public class DefaultServletTest
         assertThat(response, containsHeaderValue(HttpHeader.ETAG, etag));
     }
 
+    @Test
+    public void testCachedCompressed() throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+        {
+            text.append("Hello Text ").append(i % 10).append('\n');
+        }
+        createFile(docRoot.resolve("data0.txt"), text.toString());
+
+        // Compress in the calling thread, so that the variant is available for the first request.
+        ContentCompressor compressor = new ContentCompressor();
+        compressor.setExecutor(Runnable::run);
+        server.addBean(compressor, true);
+        compressor.start();
+
+        ServletHolder defholder = context.addServlet(DefaultServlet.class, "/");
+        defholder.setInitParameter("dirAllowed", "false");
+        defholder.setInitParameter("redirectWelcome", "false");
+        defholder.setInitParameter("welcomeServlets", "false");
+        defholder.setInitParameter("etags", "true");
+        defholder.setInitParameter("maxCachedFiles", "1024");
+
+        String rawResponse;
+        HttpTester.Response response;
+
+        rawResponse = connector.getResponse("GET /context/data0.txt HTTP/1.0\r\nHost:localhost:8080\r\n\r\n");
+        response = HttpTester.parseResponse(rawResponse);
+        assertThat(response.toString(), response.getStatus(), is(HttpStatus.OK_200));
+        assertThat(response, containsHeaderValue(HttpHeader.CONTENT_LENGTH, Integer.toString(text.length())));
+        assertThat(response, containsHeaderValue(HttpHeader.VARY, "Accept-Encoding"));
+        assertThat(response, not(containsHeader(HttpHeader.CONTENT_ENCODING)));
+        assertThat(response.getContent(), is(text.toString()));
+
+        String etag = response.get(HttpHeader.ETAG);
+        String etagGzip = etag.replaceFirst("([^\"]*)\"(.*)\"", "$1\"$2--gzip\"");
+
+        rawResponse = connector.getResponse("GET /context/data0.txt HTTP/1.0\r\nHost:localhost:8080\r\nAccept-Encoding:gzip\r\n\r\n");
+        response = HttpTester.parseResponse(rawResponse);
+        assertThat(response.toString(), response.getStatus(), is(HttpStatus.OK_200));
+        assertThat(response, containsHeaderValue(HttpHeader.CONTENT_TYPE, "text/plain"));
+        assertThat(response, containsHeaderValue(HttpHeader.VARY, "Accept-Encoding"));
+        assertThat(response, containsHeaderValue(HttpHeader.CONTENT_ENCODING, "gzip"));
+        assertThat(response, containsHeaderValue(HttpHeader.ETAG, etagGzip));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentBytes())))
+        {
+            assertThat(new String(in.readAllBytes(), UTF_8), is(text.toString()));
+        }
+
+        rawResponse = connector.getResponse("GET /context/data0.txt HTTP/1.0\r\nHost:localhost:8080\r\nAccept-Encoding:gzip\r\nIf-None-Match: " + etagGzip + "\r\n\r\n");
+        response = HttpTester.parseResponse(rawResponse);
+        assertThat(response.toString(), response.getStatus(), is(HttpStatus.NOT_MODIFIED_304));
+        assertThat(response, containsHeaderValue(HttpHeader.ETAG, etagGzip));
+    }
+
     @Test
     public void testBrotli() throws Exception
     {
@@ -0,0 +1,384 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>A bounded, lock-free, multi-producer multi-consumer {@link BlockingQueue} backed by a circular array.</p>
+ * <p>
+ * Unlike {@link BlockingArrayQueue}, producers and consumers never acquire a lock: each array slot holds
+ * a sequence number that tells whether the slot can be written by the producer or read by the consumer
+ * that claimed it by incrementing the tail or head index with a compare-and-set.
+ * </p>
+ * <p>
+ * Consumers that wait for elements do not wait on a {@link java.util.concurrent.locks.Condition}, but are
+ * parked in a stack of waiting threads. Like {@link BlockingArrayQueue}, a producer unparks a consumer
+ * only when it offers to an empty queue, and consumers unpark another consumer when elements are left;
+ * the most recently parked consumer is unparked first, so that the fewest threads are kept busy
+ * and the others may idle out.
+ * </p>
+ * <p>
+ * The queue does not grow, and its capacity is rounded up to a power of 2.
+ * Producers that wait for space (see {@link #put(Object)}) poll for it, so this queue
+ * is best suited to be used via {@link #offer(Object)}, for example as the job queue of a
+ * {@link org.eclipse.jetty.util.thread.QueuedThreadPool}.
+ * </p>
+ *
+ * @param <E> The element type
+ */
+public class ConcurrentArrayBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E>
+{
+    /**
+     * The head offset in the {@link #_indexes} array, displaced by a cache line to avoid false sharing with the array length.
+     */
+    private static final int HEAD_OFFSET = MemoryUtils.getLongsPerCacheLine() - 1;
+    /**
+     * The tail offset in the {@link #_indexes} array, displaced by a cache line from the head to avoid false sharing with it.
+     */
+    private static final int TAIL_OFFSET = HEAD_OFFSET + MemoryUtils.getLongsPerCacheLine();
+    private static final long PUT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Array that holds the head and tail indexes, separated by a cache line to avoid false sharing
+     */
+    private final AtomicLongArray _indexes = new AtomicLongArray(TAIL_OFFSET + 1);
+    private final AtomicLongArray _sequences;
+    private final AtomicReferenceArray<E> _elements;
+    private final ConcurrentLinkedDeque<Waiter> _waiters = new ConcurrentLinkedDeque<>();
+    private final int _mask;
+
+    /**
+     * Creates a bounded {@link ConcurrentArrayBlockingQueue}.
+     *
+     * @param capacity the capacity, rounded up to the next power of 2
+     */
+    public ConcurrentArrayBlockingQueue(int capacity)
+    {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        _mask = size - 1;
+        _sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; ++i)
+        {
+            _sequences.set(i, i);
+        }
+        _elements = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * @return the capacity of the queue
+     */
+    public int getCapacity()
+    {
+        return _mask + 1;
+    }
+
+    @Override
+    public int size()
+    {
+        while (true)
+        {
+            long head = _indexes.get(HEAD_OFFSET);
+            long tail = _indexes.get(TAIL_OFFSET);
+            if (head == _indexes.get(HEAD_OFFSET))
+                return (int)Math.max(0, Math.min(getCapacity(), tail - head));
+        }
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return _indexes.get(TAIL_OFFSET) - _indexes.get(HEAD_OFFSET) <= 0;
+    }
+
+    @Override
+    public int remainingCapacity()
+    {
+        return getCapacity() - size();
+    }
+
+    @Override
+    public boolean offer(E e)
+    {
+        Objects.requireNonNull(e);
+        long tail = _indexes.get(TAIL_OFFSET);
+        while (true)
+        {
+            int index = (int)(tail & _mask);
+            long diff = _sequences.get(index) - tail;
+            if (diff == 0)
+            {
+                // The slot is free, try to claim it.
+                if (_indexes.compareAndSet(TAIL_OFFSET, tail, tail + 1))
+                {
+                    _elements.lazySet(index, e);
+                    // Publish the element to the consumer of this slot.
+                    _sequences.set(index, tail + 1);
+                    // Signal only if the queue was empty, otherwise the
+                    // consumer of the previous element will signal.
+                    if (_indexes.get(HEAD_OFFSET) == tail)
+                        signal();
+                    return true;
+                }
+                tail = _indexes.get(TAIL_OFFSET);
+            }
+            else if (diff < 0)
+            {
+                // The slot still holds the element of the previous lap.
+                return false;
+            }
+            else
+            {
+                // Another producer claimed the slot.
+                tail = _indexes.get(TAIL_OFFSET);
+            }
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = NanoTime.now() + unit.toNanos(timeout);
+        while (!offer(e))
+        {
+            long nanos = NanoTime.until(deadline);
+            if (nanos <= 0)
+                return false;
+            LockSupport.parkNanos(this, Math.min(nanos, PUT_PARK_NANOS));
+            if (Thread.interrupted())
+                throw new InterruptedException();
+        }
+        return true;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException
+    {
+        while (!offer(e))
+        {
+            LockSupport.parkNanos(this, PUT_PARK_NANOS);
+            if (Thread.interrupted())
+                throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public E poll()
+    {
+        long head = _indexes.get(HEAD_OFFSET);
+        while (true)
+        {
+            int index = (int)(head & _mask);
+            long diff = _sequences.get(index) - (head + 1);
+            if (diff == 0)
+            {
+                // The slot is full, try to claim it.
+                if (_indexes.compareAndSet(HEAD_OFFSET, head, head + 1))
+                {
+                    E e = _elements.get(index);
+                    _elements.lazySet(index, null);
+                    // Release the slot to the producer of the next lap.
+                    _sequences.set(index, head + getCapacity());
+                    if (!_waiters.isEmpty() && !isEmpty())
+                        signal();
+                    return e;
+                }
+                head = _indexes.get(HEAD_OFFSET);
+            }
+            else if (diff < 0)
+            {
+                // The slot has not been published yet.
+                return null;
+            }
+            else
+            {
+                // Another consumer claimed the slot.
+                head = _indexes.get(HEAD_OFFSET);
+            }
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException
+    {
+        return poll(-1);
+    }
+
+    @Override
+    public E poll(long time, TimeUnit unit) throws InterruptedException
+    {
+        return poll(Math.max(0, unit.toNanos(time)));
+    }
+
+    private E poll(long nanos) throws InterruptedException
+    {
+        E e = poll();
+        if (e != null)
+            return e;
+
+        long deadline = NanoTime.now() + nanos;
+        while (true)
+        {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+
+            // Push before polling again, so that an element offered
+            // after the poll is guaranteed to unpark this thread.
+            Waiter waiter = new Waiter();
+            _waiters.addFirst(waiter);
+            e = poll();
+            if (e == null)
+            {
+                if (nanos < 0)
+                {
+                    LockSupport.park(this);
+                }
+                else
+                {
+                    long remaining = NanoTime.until(deadline);
+                    if (remaining > 0)
+                        LockSupport.parkNanos(this, remaining);
+                }
+            }
+
+            if (!waiter.signal())
+            {
+                // This thread was signalled, and may have consumed
+                // the signal meant for another element, so pass it on.
+                if (e != null && !isEmpty())
+                    signal();
+            }
+            else
+            {
+                // Not signalled, remove the cancelled waiter.
+                _waiters.removeFirstOccurrence(waiter);
+            }
+
+            if (e == null)
+                e = poll();
+            if (e != null)
+                return e;
+            if (nanos >= 0 && NanoTime.until(deadline) <= 0)
+                return null;
+        }
+    }
+
+    private void signal()
+    {
+        while (true)
+        {
+            Waiter waiter = _waiters.pollFirst();
+            if (waiter == null)
+                return;
+            if (waiter.signal())
+            {
+                LockSupport.unpark(waiter._thread);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public E peek()
+    {
+        long head = _indexes.get(HEAD_OFFSET);
+        int index = (int)(head & _mask);
+        if (_sequences.get(index) != head + 1)
+            return null;
+        return _elements.get(index);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c)
+    {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements)
+    {
+        if (c == this)
+            throw new IllegalArgumentException();
+        int count = 0;
+        while (count < maxElements)
+        {
+            E e = poll();
+            if (e == null)
+                break;
+            c.add(e);
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * <p>Returns an iterator over a snapshot of the elements of this queue.</p>
+     * <p>The iterator does not support removal.</p>
+     *
+     * @return an iterator over a snapshot of the elements
+     */
+    @Override
+    public Iterator<E> iterator()
+    {
+        List<E> snapshot = new ArrayList<>();
+        long head = _indexes.get(HEAD_OFFSET);
+        long tail = _indexes.get(TAIL_OFFSET);
+        for (long i = head; i < tail; ++i)
+        {
+            int index = (int)(i & _mask);
+            E e = _elements.get(index);
+            if (e != null && _sequences.get(index) == i + 1)
+                snapshot.add(e);
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    private static class Waiter
+    {
+        private final Thread _thread = Thread.currentThread();
+        private final AtomicBoolean _signalled = new AtomicBoolean();
+
+        /**
+         * @return whether this waiter was signalled by the caller, either by
+         * the thread that wakes the waiter up, or by the waiter itself to cancel
+         */
+        private boolean signal()
+        {
+            return _signalled.compareAndSet(false, true);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s@%x{size=%d,capacity=%d,waiters=%d}", getClass().getSimpleName(), hashCode(), size(), getCapacity(), _waiters.size());
+    }
+}
@@ -0,0 +1,258 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.Test;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class ConcurrentArrayBlockingQueueTest
+{
+    @Test
+    public void testCapacity()
+    {
+        assertEquals(1, new ConcurrentArrayBlockingQueue<>(1).getCapacity());
+        assertEquals(4, new ConcurrentArrayBlockingQueue<>(3).getCapacity());
+        assertEquals(8, new ConcurrentArrayBlockingQueue<>(8).getCapacity());
+    }
+
+    @Test
+    public void testWrap()
+    {
+        ConcurrentArrayBlockingQueue<String> queue = new ConcurrentArrayBlockingQueue<>(4);
+
+        for (int i = 0; i < 3 * queue.getCapacity(); i++)
+        {
+            assertTrue(queue.offer("one"));
+            assertTrue(queue.offer("two"));
+            assertTrue(queue.offer("three"));
+            assertEquals(3, queue.size());
+            assertEquals(1, queue.remainingCapacity());
+            assertThat(new ArrayList<>(queue), contains("one", "two", "three"));
+
+            assertEquals("one", queue.peek());
+            assertEquals("one", queue.poll());
+            assertEquals("two", queue.poll());
+            assertEquals("three", queue.poll());
+            assertNull(queue.poll());
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void testLimit()
+    {
+        ConcurrentArrayBlockingQueue<String> queue = new ConcurrentArrayBlockingQueue<>(2);
+
+        assertTrue(queue.offer("one"));
+        assertTrue(queue.offer("two"));
+        assertFalse(queue.offer("nope"));
+        assertEquals(0, queue.remainingCapacity());
+
+        assertEquals("one", queue.poll());
+        assertTrue(queue.offer("three"));
+        assertThat(new ArrayList<>(queue), contains("two", "three"));
+    }
+
+    @Test
+    public void testTake() throws Exception
+    {
+        String[] data = new String[4];
+
+        ConcurrentArrayBlockingQueue<String> queue = new ConcurrentArrayBlockingQueue<>(8);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+
+        Thread thread = new Thread(() ->
+        {
+            try
+            {
+                data[0] = queue.take();
+                data[1] = queue.take();
+                barrier.await(5, TimeUnit.SECONDS); // Wait until the main thread already called offer().
+                data[2] = queue.take();
+                data[3] = queue.poll(100, TimeUnit.MILLISECONDS);
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+                fail("Should not had failed");
+            }
+        });
+
+        thread.start();
+
+        // Wait until the spawned thread is parked in queue.take().
+        await().atMost(5, TimeUnit.SECONDS).until(() -> thread.getState() == Thread.State.WAITING);
+
+        queue.offer("zero");
+        queue.offer("one");
+        queue.offer("two");
+        barrier.await(5, TimeUnit.SECONDS); // Notify the spawned thread that offer() was called.
+        thread.join();
+
+        assertEquals("zero", data[0]);
+        assertEquals("one", data[1]);
+        assertEquals("two", data[2]);
+        assertNull(data[3]);
+    }
+
+    @Test
+    public void testTakeInterrupted() throws Exception
+    {
+        ConcurrentArrayBlockingQueue<String> queue = new ConcurrentArrayBlockingQueue<>(8);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread thread = new Thread(() ->
+        {
+            try
+            {
+                queue.take();
+            }
+            catch (Throwable x)
+            {
+                failure.set(x);
+            }
+        });
+        thread.start();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> thread.getState() == Thread.State.WAITING);
+        thread.interrupt();
+        thread.join();
+
+        assertThat(failure.get(), instanceOf(InterruptedException.class));
+
+        // The cancelled waiter does not steal the signal of other waiters.
+        queue.offer("one");
+        assertEquals("one", queue.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception
+    {
+        int threads = 8;
+        int loops = 10_000;
+
+        ConcurrentArrayBlockingQueue<Integer> queue = new ConcurrentArrayBlockingQueue<>(64);
+
+        Set<Integer> consumed = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(threads * loops);
+
+        List<Thread> consumers = new ArrayList<>();
+        for (int i = 0; i < threads; i++)
+        {
+            Thread consumer = new Thread(() ->
+            {
+                try
+                {
+                    while (true)
+                    {
+                        Integer msg = queue.poll(10, TimeUnit.MILLISECONDS);
+                        if (msg == null)
+                            continue;
+                        if (msg < 0)
+                            return;
+                        if (consumed.add(msg))
+                            latch.countDown();
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    e.printStackTrace();
+                }
+            });
+            consumer.start();
+            consumers.add(consumer);
+        }
+
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < threads; i++)
+        {
+            int offset = i * loops;
+            Thread producer = new Thread(() ->
+            {
+                try
+                {
+                    for (int j = 0; j < loops; j++)
+                    {
+                        queue.put(offset + j);
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    e.printStackTrace();
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        for (Thread producer : producers)
+        {
+            producer.join();
+        }
+        for (int i = 0; i < threads; i++)
+        {
+            queue.put(-1);
+        }
+        for (Thread consumer : consumers)
+        {
+            consumer.join();
+        }
+
+        assertEquals(threads * loops, consumed.size());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testAsQueuedThreadPoolJobs() throws Exception
+    {
+        QueuedThreadPool pool = new QueuedThreadPool(8, 2, 60000, 0, new ConcurrentArrayBlockingQueue<>(1024), null);
+        pool.start();
+        try
+        {
+            int jobs = 1000;
+            CountDownLatch latch = new CountDownLatch(jobs);
+            for (int i = 0; i < jobs; i++)
+            {
+                pool.execute(latch::countDown);
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertThat(pool.getQueueSize(), is(0));
+        }
+        finally
+        {
+            pool.stop();
+        }
+    }
+}
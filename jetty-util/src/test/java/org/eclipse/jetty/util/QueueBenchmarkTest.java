@@ -58,6 +58,7 @@ public class QueueBenchmarkTest
         queues.add(new ConcurrentLinkedQueue<>()); // JDK lock-free queue, allocating nodes
         queues.add(new ArrayBlockingQueue<>(iterations * writers)); // JDK lock-based, circular array queue
         queues.add(new BlockingArrayQueue<>(iterations * writers)); // Jetty lock-based, circular array queue
+        queues.add(new ConcurrentArrayBlockingQueue<>(Math.min(iterations * writers, 1 << 30))); // Jetty lock-free, circular array queue
 
         testQueues(readers, writers, iterations, queues, false);
     }
@@ -76,6 +77,7 @@ public class QueueBenchmarkTest
         queues.add(new LinkedBlockingQueue<>());
         queues.add(new ArrayBlockingQueue<>(iterations * writers));
         queues.add(new BlockingArrayQueue<>(iterations * writers));
+        queues.add(new ConcurrentArrayBlockingQueue<>(Math.min(iterations * writers, 1 << 30)));
 
         testQueues(readers, writers, iterations, queues, true);
     }
@@ -31,6 +31,7 @@ import org.eclipse.jetty.io.RetainableByteBuffer;
 import org.eclipse.jetty.io.RetainableByteBufferPool;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.VirtualThreads;
 import org.eclipse.jetty.util.component.Dumpable;
 import org.eclipse.jetty.util.thread.AutoLock;
 import org.eclipse.jetty.util.thread.Scheduler;
@@ -60,6 +61,7 @@ public class WebSocketConnection extends AbstractConnection implements Connectio
     private final WebSocketCoreSession coreSession;
     private final Flusher flusher;
     private final Random random;
+    private final Executor dispatchExecutor;
     private long demand;
     private boolean fillingAndParsing;
     private final LongAdder messagesIn = new LongAdder();
@@ -127,6 +129,11 @@ public class WebSocketConnection extends AbstractConnection implements Connectio
         if (this.coreSession.getBehavior() == Behavior.CLIENT && randomMask == null)
             randomMask = new SecureRandom();
         this.random = randomMask;
+
+        // Frames are delivered to the application, which may block,
+        // so use virtual threads if the executor is configured so.
+        Executor virtualExecutor = VirtualThreads.getVirtualThreadsExecutor(executor);
+        this.dispatchExecutor = virtualExecutor == null ? executor : virtualExecutor;
     }
 
     @Override
@@ -390,7 +397,7 @@ public class WebSocketConnection extends AbstractConnection implements Connectio
         if (fillAndParse)
         {
             // TODO can we just fillAndParse();
-            getExecutor().execute(this);
+            dispatchExecutor.execute(this);
         }
     }
 
@@ -20,6 +20,7 @@ import java.util.concurrent.Executor;
 
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.IO;
+import org.eclipse.jetty.util.VirtualThreads;
 import org.eclipse.jetty.websocket.core.CoreSession;
 import org.eclipse.jetty.websocket.core.Frame;
 
@@ -101,7 +102,11 @@ public abstract class DispatchedMessageSink extends AbstractMessageSink
     public DispatchedMessageSink(CoreSession session, MethodHandle methodHandle)
     {
         super(session, methodHandle);
-        executor = session.getWebSocketComponents().getExecutor();
+        // The user function blocks to read the message, so it
+        // uses virtual threads if the executor is configured so.
+        Executor executor = session.getWebSocketComponents().getExecutor();
+        Executor virtualExecutor = VirtualThreads.getVirtualThreadsExecutor(executor);
+        this.executor = virtualExecutor == null ? executor : virtualExecutor;
     }
 
     public abstract MessageSink newSink(Frame frame);
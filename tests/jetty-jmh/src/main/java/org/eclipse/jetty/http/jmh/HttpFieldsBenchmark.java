@@ -0,0 +1,123 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+@Threads(4)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class HttpFieldsBenchmark
+{
+    @Param({"8", "24", "96"})
+    public static int SIZE;
+
+    private HttpField[] _request;
+
+    @Setup
+    public void setUp()
+    {
+        _request = new HttpField[SIZE];
+        _request[0] = new HttpField(HttpHeader.HOST, "localhost:8080");
+        _request[1] = new HttpField(HttpHeader.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64)");
+        _request[2] = new HttpField(HttpHeader.ACCEPT, "text/html,application/xhtml+xml,*/*;q=0.8");
+        _request[3] = new HttpField(HttpHeader.ACCEPT_ENCODING, "gzip, deflate, br");
+        _request[4] = new HttpField(HttpHeader.ACCEPT_LANGUAGE, "en-US,en;q=0.5");
+        _request[5] = new HttpField(HttpHeader.COOKIE, "session=0123456789abcdef");
+        // Proxied requests carry many extension fields before the ones looked up below.
+        for (int i = 6; i < SIZE - 2; i++)
+        {
+            _request[i] = new HttpField("X-Forwarded-Extension-" + i, "value-" + i);
+        }
+        _request[SIZE - 2] = new HttpField(HttpHeader.CONNECTION, "keep-alive");
+        _request[SIZE - 1] = new HttpField("X-Request-Id", "4bf92f3577b34da6a3ce929d0e0e4736");
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public long testRequestLookups()
+    {
+        HttpFields.Mutable fields = HttpFields.build();
+        for (HttpField field : _request)
+        {
+            fields.add(field);
+        }
+
+        // Lookups typical of the request handling of a server and a proxy.
+        long result = 0;
+        result += fields.get(HttpHeader.HOST).length();
+        result += fields.contains(HttpHeader.CONTENT_LENGTH) ? 1 : 0;
+        result += fields.contains(HttpHeader.TRANSFER_ENCODING) ? 1 : 0;
+        result += fields.getField(HttpHeader.CONNECTION).getValue().length();
+        result += fields.getField(HttpHeader.EXPECT) == null ? 0 : 1;
+        result += fields.get("X-Request-Id").length();
+        result += fields.get("X-Forwarded-For") == null ? 0 : 1;
+        result += fields.getField(HttpHeader.ACCEPT_ENCODING).getValue().length();
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public long testResponsePuts()
+    {
+        HttpFields.Mutable fields = HttpFields.build();
+        for (HttpField field : _request)
+        {
+            fields.add(field);
+        }
+
+        // Puts typical of a proxy rewriting the fields of a response.
+        fields.remove(HttpHeader.CONNECTION);
+        fields.put(HttpHeader.VIA, "1.1 jetty");
+        fields.put(HttpHeader.SERVER, "Jetty");
+        fields.put(HttpHeader.CONTENT_TYPE, "text/html;charset=utf-8");
+        fields.put("X-Request-Id", "4bf92f3577b34da6a3ce929d0e0e4736");
+        fields.putLongField(HttpHeader.CONTENT_LENGTH, 1024);
+        return fields.size();
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(HttpFieldsBenchmark.class.getSimpleName())
+            .warmupIterations(10)
+            .measurementIterations(10)
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
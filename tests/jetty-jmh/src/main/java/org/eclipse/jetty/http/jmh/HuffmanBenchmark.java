@@ -0,0 +1,140 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.compression.EncodingException;
+import org.eclipse.jetty.http.compression.HuffmanDecoder;
+import org.eclipse.jetty.http.compression.HuffmanEncoder;
+import org.eclipse.jetty.http.compression.NBitIntegerEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Thread)
+@Threads(4)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class HuffmanBenchmark
+{
+    // Field names and values as sent by browsers and servers.
+    private static final String[] CORPUS =
+        {
+            "www.example.com",
+            "/static/js/app.min.js?v=2.13.1",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/118.0.0.0 Safari/537.36",
+            "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,*/*;q=0.8",
+            "gzip, deflate, br",
+            "en-US,en;q=0.9",
+            "https://www.example.com/products/list?page=2&sort=price",
+            "_ga=GA1.2.1234567890.1234567890; _gid=GA1.2.0987654321.0987654321; JSESSIONID=node0a1b2c3d4e5f6g7h8i9j0.node0",
+            "max-age=0",
+            "same-origin",
+            "Mon, 21 Oct 2013 20:13:21 GMT",
+            "application/json; charset=utf-8",
+            "public, max-age=31536000, immutable",
+            "\"5d8c72a5edda8d6a:0\"",
+            "x-request-id",
+            "4bf92f3577b34da6a3ce929d0e0e4736"
+        };
+
+    private byte[][] _encoded;
+    private HuffmanDecoder _decoder;
+    private ByteBuffer _buffer;
+
+    @Setup
+    public void setUp()
+    {
+        _encoded = new byte[CORPUS.length][];
+        for (int i = 0; i < CORPUS.length; i++)
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(HuffmanEncoder.octetsNeeded(CORPUS[i]));
+            HuffmanEncoder.encode(buffer, CORPUS[i]);
+            _encoded[i] = buffer.array();
+        }
+        _decoder = new HuffmanDecoder();
+        _buffer = ByteBuffer.allocate(4096);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public long testDecode() throws EncodingException
+    {
+        long result = 0;
+        for (byte[] encoded : _encoded)
+        {
+            _decoder.setLength(encoded.length);
+            result += _decoder.decode(ByteBuffer.wrap(encoded)).length();
+        }
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public long testEncodeTwoPass()
+    {
+        long result = 0;
+        for (String value : CORPUS)
+        {
+            _buffer.clear();
+            _buffer.put((byte)0x80);
+            NBitIntegerEncoder.encode(_buffer, 7, HuffmanEncoder.octetsNeeded(value));
+            HuffmanEncoder.encode(_buffer, value);
+            result += _buffer.position();
+        }
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public long testEncodeWithLength()
+    {
+        long result = 0;
+        for (String value : CORPUS)
+        {
+            _buffer.clear();
+            _buffer.put((byte)0x80);
+            HuffmanEncoder.encodeWithLength(_buffer, 7, value);
+            result += _buffer.position();
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(HuffmanBenchmark.class.getSimpleName())
+            .warmupIterations(5)
+            .measurementIterations(5)
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
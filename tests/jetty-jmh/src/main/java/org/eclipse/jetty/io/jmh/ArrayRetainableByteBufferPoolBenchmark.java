@@ -0,0 +1,98 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.io.jmh;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.io.ArrayRetainableByteBufferPool;
+import org.eclipse.jetty.io.RetainableByteBuffer;
+import org.eclipse.jetty.util.ProcessorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+@Threads(4)
+@Warmup(iterations = 7, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 7, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+public class ArrayRetainableByteBufferPoolBenchmark
+{
+    @Param({"1", "0"})
+    public static int stripes;
+
+    @Param({"1024", "16384"})
+    public static int size;
+
+    ArrayRetainableByteBufferPool pool;
+
+    @Setup(Level.Trial)
+    public void setupTrial()
+    {
+        pool = new ArrayRetainableByteBufferPool(0, 1024, 65536, Integer.MAX_VALUE, 0, 0, stripes);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopTrial()
+    {
+        pool.clear();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public void testAcquireRelease()
+    {
+        RetainableByteBuffer buffer = pool.acquire(size, true);
+        buffer.release();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public void testAcquireReleaseRandomSize()
+    {
+        RetainableByteBuffer buffer = pool.acquire(ThreadLocalRandom.current().nextInt(1, size + 1), true);
+        buffer.release();
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        // Measure how the pool scales from 1 thread up to the number of processors.
+        int processors = ProcessorUtils.availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2)
+        {
+            Options opt = new OptionsBuilder()
+                .include(ArrayRetainableByteBufferPoolBenchmark.class.getSimpleName())
+                .warmupIterations(10)
+                .measurementIterations(10)
+                .forks(1)
+                .threads(threads)
+                .build();
+
+            new Runner(opt).run();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+//
+// ========================================================================
+// Copyright (c) 1995 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Eclipse Public License v. 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+// which is available at https://www.apache.org/licenses/LICENSE-2.0.
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.server.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.LocalConnector;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Benchmark)
+@Threads(4)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class PipelinedRequestBenchmark
+{
+    private static final int PIPELINED = 16;
+
+    @Param({"false", "true"})
+    public static String REUSE_METADATA;
+
+    private Server _server;
+    private LocalConnector _connector;
+    private String _requests;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception
+    {
+        _server = new Server();
+        HttpConfiguration config = new HttpConfiguration();
+        config.setReuseRequestMetaData(Boolean.parseBoolean(REUSE_METADATA));
+        _connector = new LocalConnector(_server, new HttpConnectionFactory(config));
+        _server.addConnector(_connector);
+        _server.setHandler(new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException
+            {
+                baseRequest.setHandled(true);
+                response.setContentLength(0);
+            }
+        });
+        _server.start();
+
+        StringBuilder requests = new StringBuilder();
+        for (int i = 0; i < PIPELINED; i++)
+        {
+            requests.append("GET /path/to/resource/").append(i).append("?query=value HTTP/1.1\r\n")
+                .append("Host: localhost\r\n")
+                .append("User-Agent: Mozilla/5.0 (X11; Linux x86_64)\r\n")
+                .append("Accept: text/html,application/xhtml+xml,*/*;q=0.8\r\n")
+                .append("Accept-Encoding: gzip, deflate\r\n")
+                .append("Cookie: session=0123456789abcdef\r\n");
+            if (i == PIPELINED - 1)
+                requests.append("Connection: close\r\n");
+            requests.append("\r\n");
+        }
+        _requests = requests.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws Exception
+    {
+        _server.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public long testPipelinedRequests() throws Exception
+    {
+        LocalConnector.LocalEndPoint endPoint = _connector.executeRequest(_requests);
+        long length = 0;
+        for (int i = 0; i < PIPELINED; i++)
+        {
+            length += endPoint.getResponse().length();
+        }
+        return length;
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(PipelinedRequestBenchmark.class.getSimpleName())
+            .warmupIterations(5)
+            .measurementIterations(5)
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
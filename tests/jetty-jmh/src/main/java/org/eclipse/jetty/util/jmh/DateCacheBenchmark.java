@@ -17,13 +17,19 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jetty.http.DateGenerator;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.server.CoarseClock;
 import org.eclipse.jetty.util.DateCache;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.runner.Runner;
@@ -41,6 +47,19 @@ public class DateCacheBenchmark
 
     DateCache dateCache = new DateCache();
     long timestamp = Instant.now().toEpochMilli();
+    CoarseClock coarseClock = new CoarseClock();
+
+    @Setup(Level.Trial)
+    public void startClock() throws Exception
+    {
+        coarseClock.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopClock() throws Exception
+    {
+        coarseClock.stop();
+    }
 
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
@@ -63,6 +82,34 @@ public class DateCacheBenchmark
         dateCache.formatNow(System.currentTimeMillis());
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public String testDateGeneratorFormatNow()
+    {
+        return DateGenerator.formatDate(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public HttpField testCoarseClockDateField()
+    {
+        return coarseClock.getDateField();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long testSystemClockNow()
+    {
+        return System.currentTimeMillis();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long testCoarseClockNow()
+    {
+        return coarseClock.currentTimeMillis();
+    }
+
     public static void main(String[] args) throws RunnerException
     {
         Options opt = new OptionsBuilder()
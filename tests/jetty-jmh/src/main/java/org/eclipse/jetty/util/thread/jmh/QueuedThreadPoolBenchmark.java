@@ -13,15 +13,19 @@
 
 package org.eclipse.jetty.util.thread.jmh;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.ConcurrentArrayBlockingQueue;
 import org.eclipse.jetty.util.component.LifeCycle;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -38,13 +42,29 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 @Measurement(iterations = 10, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
 public class QueuedThreadPoolBenchmark
 {
+    @Param({"BLOCKING_ARRAY", "CONCURRENT_ARRAY"})
+    public static String queueType;
+
     QueuedThreadPool pool;
     private CountDownLatch[] latches;
 
     @Setup // (Level.Iteration)
     public void buildPool()
     {
-        pool = new QueuedThreadPool(200, 200);
+        int capacity = 200 * 1024;
+        BlockingQueue<Runnable> queue;
+        switch (queueType)
+        {
+            case "BLOCKING_ARRAY":
+                queue = new BlockingArrayQueue<>(capacity, capacity);
+                break;
+            case "CONCURRENT_ARRAY":
+                queue = new ConcurrentArrayBlockingQueue<>(capacity);
+                break;
+            default:
+                throw new IllegalStateException();
+        }
+        pool = new QueuedThreadPool(200, 200, queue);
         pool.setReservedThreads(0);
         LifeCycle.start(pool);
         latches = new CountDownLatch[50];
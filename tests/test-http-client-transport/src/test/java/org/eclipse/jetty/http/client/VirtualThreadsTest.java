@@ -22,6 +22,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
 import javax.servlet.ReadListener;
 import javax.servlet.ServletException;
 import javax.servlet.ServletInputStream;
@@ -186,4 +187,48 @@ public class VirtualThreadsTest extends AbstractTest<TransportScenario>
         assertTrue(latch.await(15, TimeUnit.SECONDS));
         assertEquals(length.get(), data.length);
     }
+
+    @ParameterizedTest
+    @ArgumentsSource(TransportProvider.class)
+    public void testAsyncDispatchInvokedOnVirtualThread(Transport transport) throws Exception
+    {
+        // No virtual thread support in FCGI server-side.
+        Assumptions.assumeTrue(transport != Transport.FCGI);
+
+        init(transport);
+        scenario.prepareServer(new EmptyServerHandler()
+        {
+            @Override
+            protected void service(String target, Request jettyRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException
+            {
+                if (!VirtualThreads.isVirtualThread())
+                {
+                    response.setStatus(HttpStatus.NOT_IMPLEMENTED_501);
+                    return;
+                }
+
+                if (request.getDispatcherType() == DispatcherType.ASYNC)
+                    return;
+
+                AsyncContext asyncContext = request.startAsync();
+                asyncContext.start(() ->
+                {
+                    if (!VirtualThreads.isVirtualThread())
+                        response.setStatus(HttpStatus.NOT_IMPLEMENTED_501);
+                    asyncContext.dispatch();
+                });
+            }
+        });
+        ThreadPool threadPool = scenario.server.getThreadPool();
+        if (threadPool instanceof VirtualThreads.Configurable)
+            ((VirtualThreads.Configurable)threadPool).setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+        scenario.server.start();
+        scenario.startClient();
+
+        ContentResponse response = scenario.client.newRequest(scenario.newURI())
+            .timeout(5, TimeUnit.SECONDS)
+            .send();
+
+        assertEquals(HttpStatus.OK_200, response.getStatus(), " for transport " + transport);
+    }
 }